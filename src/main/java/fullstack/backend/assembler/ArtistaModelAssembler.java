@@ -3,21 +3,25 @@ package fullstack.backend.assembler;
 import fullstack.backend.controller.ArtistaController;
 import fullstack.backend.model.Artista;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class ArtistaModelAssembler implements RepresentationModelAssembler<Artista, EntityModel<Artista>> {
 
+    private static final PlantillaEnlace ARTISTA =
+            PlantillaEnlace.de(ArtistaController.class, "getArtistaById", Long.class, String.class);
+    private static final PlantillaEnlace ARTISTAS =
+            PlantillaEnlace.de(ArtistaController.class, "getAllArtistas", String.class);
+
     @Override
     public EntityModel<Artista> toModel(Artista artista) {
-        return EntityModel.of(artista,
-                linkTo(methodOn(ArtistaController.class).getArtistaById(artista.getId())).withSelfRel(),
-                linkTo(methodOn(ArtistaController.class).getAllArtistas()).withRel("artistas"),
-                linkTo(methodOn(ArtistaController.class).updateArtista(artista.getId(), artista)).withRel("update"),
-                linkTo(methodOn(ArtistaController.class).deleteArtista(artista.getId())).withRel("delete"));
+        EntityModel<Artista> modelo = EntityModel.of(artista);
+        if (PlantillaEnlace.incluirEnlaces()) {
+            Link item = ARTISTA.expandir(artista.getId());
+            modelo.add(item, ARTISTAS.expandir().withRel("artistas"), item.withRel("update"), item.withRel("delete"));
+        }
+        return modelo;
     }
 }
@@ -6,21 +6,18 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class CarritoModelAssembler implements RepresentationModelAssembler<Carrito, EntityModel<Carrito>> {
 
+    private static final PlantillaEnlace CARRITO =
+            PlantillaEnlace.de(CarritoController.class, "obtenerCarritoPorRut", Integer.class);
+
     @Override
     public EntityModel<Carrito> toModel(Carrito carrito) {
-        return EntityModel.of(carrito,
-                linkTo(methodOn(CarritoController.class).obtenerCarritoPorRut(carrito.getUsuario().getRut()))
-                        .withSelfRel()
-        // linkTo(methodOn(CarritoController.class).obtenerCarritos()).withRel("carritos"),
-        // linkTo(methodOn(CarritoController.class).updateCarrito(carrito.getId(),
-        // carrito)).withRel("update"),
-        // linkTo(methodOn(CarritoController.class).deleteCarrito(carrito.getId())).withRel("delete")
-        );
+        EntityModel<Carrito> modelo = EntityModel.of(carrito);
+        if (PlantillaEnlace.incluirEnlaces()) {
+            modelo.add(CARRITO.expandir(carrito.getUsuario().getRut()));
+        }
+        return modelo;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package fullstack.backend.assembler;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ruta de un método de controlador resuelta una sola vez desde sus anotaciones @RequestMapping.
+// Por entidad solo se concatenan la base de la petición y los valores de las variables,
+// sin el proxy de methodOn ni la resolución de mappings de linkTo.
+public final class PlantillaEnlace {
+
+    private static final String ATRIBUTO_CONTEXTO = PlantillaEnlace.class.getName() + ".contexto";
+
+    // Tramos literales de la ruta: siempre uno más que la cantidad de variables
+    private final String[] literales;
+
+    private PlantillaEnlace(String[] literales) {
+        this.literales = literales;
+    }
+
+    public static PlantillaEnlace de(Class<?> controlador, String metodo, Class<?>... parametros) {
+        Method destino;
+        try {
+            destino = controlador.getMethod(metodo, parametros);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No existe " + controlador.getSimpleName() + "." + metodo, e);
+        }
+        String ruta = ruta(AnnotatedElementUtils.findMergedAnnotation(controlador, RequestMapping.class))
+                + ruta(AnnotatedElementUtils.findMergedAnnotation(destino, RequestMapping.class));
+
+        List<String> tramos = new ArrayList<>();
+        int inicio = 0;
+        int abre = ruta.indexOf('{');
+        while (abre >= 0) {
+            tramos.add(ruta.substring(inicio, abre));
+            inicio = ruta.indexOf('}', abre) + 1;
+            abre = ruta.indexOf('{', inicio);
+        }
+        tramos.add(ruta.substring(inicio));
+        return new PlantillaEnlace(tramos.toArray(new String[0]));
+    }
+
+    public Link expandir(Object... valores) {
+        if (valores.length != literales.length - 1) {
+            throw new IllegalArgumentException("Se esperaban " + (literales.length - 1) + " valores");
+        }
+        StringBuilder href = new StringBuilder(contexto().base()).append(literales[0]);
+        for (int i = 0; i < valores.length; i++) {
+            href.append(UriUtils.encodePathSegment(String.valueOf(valores[i]), StandardCharsets.UTF_8))
+                    .append(literales[i + 1]);
+        }
+        return Link.of(href.toString());
+    }
+
+    // Un cliente que pide application/json sin HAL recibe solo los datos, sin _links
+    public static boolean incluirEnlaces() {
+        return contexto().enlaces();
+    }
+
+    private static String ruta(RequestMapping mapping) {
+        return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+
+    // Base y negociación se calculan una vez por petición y se guardan como atributo de la misma
+    private static Contexto contexto() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes servlet)) {
+            return new Contexto("", true);
+        }
+        Contexto contexto = (Contexto) atributos.getAttribute(ATRIBUTO_CONTEXTO, RequestAttributes.SCOPE_REQUEST);
+        if (contexto == null) {
+            contexto = new Contexto(ServletUriComponentsBuilder.fromCurrentContextPath().toUriString(),
+                    aceptaEnlaces(servlet.getRequest()));
+            atributos.setAttribute(ATRIBUTO_CONTEXTO, contexto, RequestAttributes.SCOPE_REQUEST);
+        }
+        return contexto;
+    }
+
+    private static boolean aceptaEnlaces(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        boolean soloJson = false;
+        try {
+            for (MediaType tipo : MediaType.parseMediaTypes(accept)) {
+                if (MediaTypes.HAL_JSON.equalsTypeAndSubtype(tipo)) {
+                    return true;
+                }
+                if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(tipo)) {
+                    soloJson = true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+        return !soloJson;
+    }
+
+    private record Contexto(String base, boolean enlaces) {
+    }
+}
@@ -0,0 +1,23 @@
+package fullstack.backend.assembler;
+
+import fullstack.backend.dto.ProductoResumen;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import static fullstack.backend.assembler.ProductoModelAssembler.PRODUCTO;
+import static fullstack.backend.assembler.ProductoModelAssembler.PRODUCTOS;
+
+@Component
+public class ProductoResumenModelAssembler
+        implements RepresentationModelAssembler<ProductoResumen, EntityModel<ProductoResumen>> {
+
+    @Override
+    public EntityModel<ProductoResumen> toModel(ProductoResumen producto) {
+        EntityModel<ProductoResumen> modelo = EntityModel.of(producto);
+        if (PlantillaEnlace.incluirEnlaces()) {
+            modelo.add(PRODUCTO.expandir(producto.sku()), PRODUCTOS.expandir().withRel("productos"));
+        }
+        return modelo;
+    }
+}
@@ -3,21 +3,25 @@ package fullstack.backend.assembler;
 import fullstack.backend.controller.SelloController;
 import fullstack.backend.model.Sello;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class SelloModelAssembler implements RepresentationModelAssembler<Sello, EntityModel<Sello>> {
 
+    private static final PlantillaEnlace SELLO =
+            PlantillaEnlace.de(SelloController.class, "getSelloById", Long.class, String.class);
+    private static final PlantillaEnlace SELLOS =
+            PlantillaEnlace.de(SelloController.class, "getAllSellos", String.class);
+
     @Override
     public EntityModel<Sello> toModel(Sello sello) {
-        return EntityModel.of(sello,
-                linkTo(methodOn(SelloController.class).getSelloById(sello.getId())).withSelfRel(),
-                linkTo(methodOn(SelloController.class).getAllSellos()).withRel("sellos"),
-                linkTo(methodOn(SelloController.class).updateSello(sello.getId(), sello)).withRel("update"),
-                linkTo(methodOn(SelloController.class).deleteSello(sello.getId())).withRel("delete"));
+        EntityModel<Sello> modelo = EntityModel.of(sello);
+        if (PlantillaEnlace.incluirEnlaces()) {
+            Link item = SELLO.expandir(sello.getId());
+            modelo.add(item, SELLOS.expandir().withRel("sellos"), item.withRel("update"), item.withRel("delete"));
+        }
+        return modelo;
     }
 }
@@ -3,22 +3,25 @@ package fullstack.backend.assembler;
 import fullstack.backend.controller.UsuarioController;
 import fullstack.backend.model.Usuario;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @Component
 public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuario, EntityModel<Usuario>> {
 
+    private static final PlantillaEnlace USUARIO =
+            PlantillaEnlace.de(UsuarioController.class, "obtenerUsuarioPorRut", Integer.class);
+    private static final PlantillaEnlace USUARIOS =
+            PlantillaEnlace.de(UsuarioController.class, "obtenerUsuarios");
+
     @Override
     public EntityModel<Usuario> toModel(Usuario usuario) {
-        return EntityModel.of(usuario,
-                linkTo(methodOn(UsuarioController.class).obtenerUsuarioPorRut(usuario.getRut())).withSelfRel(),
-                linkTo(methodOn(UsuarioController.class).obtenerUsuarios()).withRel("usuarios"),
-                linkTo(methodOn(UsuarioController.class).actualizarUsuario(usuario.getRut(), usuario)).withRel("update"),
-                linkTo(methodOn(UsuarioController.class).deleteUser(usuario.getRut())).withRel("delete")
-        );
+        EntityModel<Usuario> modelo = EntityModel.of(usuario);
+        if (PlantillaEnlace.incluirEnlaces()) {
+            Link item = USUARIO.expandir(usuario.getRut());
+            modelo.add(item, USUARIOS.expandir().withRel("usuarios"), item.withRel("update"), item.withRel("delete"));
+        }
+        return modelo;
     }
 }
@@ -1,8 +1,10 @@
 package fullstack.backend.controller;
 
 import fullstack.backend.assembler.ArtistaModelAssembler;
+import fullstack.backend.dto.Sugerencia;
 import fullstack.backend.model.Artista;
 import fullstack.backend.service.ArtistaService;
+import fullstack.backend.utils.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +16,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -60,19 +63,45 @@ public class ArtistaController {
             @ApiResponse(responseCode = "404", description = "No se encuentran artistas", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Artista>>> getAllArtistas() {
+    public ResponseEntity<CollectionModel<EntityModel<Artista>>> getAllArtistas(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = artistaService.getEtagArtistas();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
             List<Artista> artistas = artistaService.getAllArtistas();
             if (artistas.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             } else {
-                return new ResponseEntity<>(assembler.toCollectionModel(artistas), HttpStatus.OK);
+                return ETags.ok(etag).body(assembler.toCollectionModel(artistas));
             }
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Sugerir artistas", description = "Autocompletado por prefijo de cualquier palabra del nombre, sin distinguir mayúsculas ni tildes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna las sugerencias encontradas, posiblemente vacía"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<List<Sugerencia>> sugerirArtistas(
+            @Parameter(description = "Texto escrito por el usuario", example = "The Beat") @RequestParam String q,
+            @Parameter(description = "Cantidad máxima de sugerencias") @RequestParam(defaultValue = "10") Integer limite,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            String etag = artistaService.getEtagArtistas();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
+            return ETags.ok(etag).body(artistaService.sugerirArtistas(q, Math.max(1, Math.min(limite, 50))));
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar artista por ID", description = "Obtiene un artista según el ID registrado en el sistema")
     @ApiResponses(value = {
@@ -81,11 +110,16 @@ public class ArtistaController {
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @Parameter(description = "El ID del artista", example = "1")
-    public ResponseEntity<EntityModel<Artista>> getArtistaById(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Artista>> getArtistaById(@PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = artistaService.getEtagArtistas();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
             Optional<Artista> artistaOptional = artistaService.getArtistaById(id);
             if (artistaOptional.isPresent()) {
-                return new ResponseEntity<>(assembler.toModel(artistaOptional.get()), HttpStatus.OK);
+                return ETags.ok(etag).body(assembler.toModel(artistaOptional.get()));
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -102,11 +136,16 @@ public class ArtistaController {
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @Parameter(description = "El nombre del artista", example = "The Beatles")
-    public ResponseEntity<EntityModel<Artista>> getArtistaByNombre(@RequestParam String nombre) {
+    public ResponseEntity<EntityModel<Artista>> getArtistaByNombre(@RequestParam String nombre,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = artistaService.getEtagArtistas();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
             Optional<Artista> artistaOptional = artistaService.getArtistaByNombre(nombre);
             if (artistaOptional.isPresent()) {
-                return new ResponseEntity<>(assembler.toModel(artistaOptional.get()), HttpStatus.OK);
+                return ETags.ok(etag).body(assembler.toModel(artistaOptional.get()));
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
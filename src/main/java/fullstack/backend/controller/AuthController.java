@@ -2,19 +2,27 @@ package fullstack.backend.controller;
 
 import fullstack.backend.dto.JwtResponse;
 import fullstack.backend.dto.LoginRequest;
-import fullstack.backend.model.Usuario;
-import fullstack.backend.repository.UsuarioRepository;
+import fullstack.backend.dto.RefreshRequest;
+import fullstack.backend.security.BoundedPasswordEncoder;
 import fullstack.backend.security.JwtUtils;
+import fullstack.backend.security.RevokedTokens;
+import fullstack.backend.security.RevokedUsers;
+import fullstack.backend.security.UserDetailsServiceImpl;
+import fullstack.backend.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -29,30 +37,97 @@ public class AuthController {
         JwtUtils jwtUtils;
 
         @Autowired
-        UsuarioRepository usuarioRepository;
+        BoundedPasswordEncoder passwordEncoder;
+
+        @Autowired
+        UserDetailsServiceImpl userDetailsService;
+
+        @Autowired
+        RevokedTokens revokedTokens;
+
+        @Autowired
+        RevokedUsers revokedUsers;
 
         @PostMapping("/login")
         public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
 
-                Authentication authentication = authenticationManager.authenticate(
-                                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(),
-                                                loginRequest.getPassword()));
+                Authentication authentication;
+                try {
+                        authentication = authenticationManager.authenticate(
+                                        new UsernamePasswordAuthenticationToken(loginRequest.getEmail(),
+                                                        loginRequest.getPassword()));
+                } catch (RejectedExecutionException e) {
+                        // Cola de hashing llena: se rechaza de inmediato en vez de retener el hilo
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .header(HttpHeaders.RETRY_AFTER,
+                                                        String.valueOf(passwordEncoder.getRetryAfterSeconds()))
+                                        .build();
+                }
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                String jwt = jwtUtils.generateJwtToken(authentication);
 
-                UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-                List<String> roles = userDetails.getAuthorities().stream()
+                // El principal ya trae el RUT, no hace falta volver a buscar al usuario
+                return ResponseEntity.ok(emitirTokens((UserPrincipal) authentication.getPrincipal()));
+        }
+
+        // Rotación: cada refresh token sirve una sola vez y se cambia por un par nuevo
+        @PostMapping("/refresh")
+        public ResponseEntity<?> refreshToken(@RequestBody RefreshRequest refreshRequest) {
+                Claims claims = jwtUtils.parseRefreshClaims(refreshRequest.getRefreshToken());
+                if (claims == null) {
+                        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+                }
+                if (!revokedTokens.consume(claims.getId(), claims.getExpiration())) {
+                        // Un refresh token reutilizado indica robo: se invalidan todas las sesiones del usuario
+                        revokedUsers.revoke(claims.getSubject());
+                        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+                }
+                Long emitidoEn = JwtUtils.issuedAtMillis(claims);
+                if (emitidoEn == null || revokedUsers.isRevoked(claims.getSubject(), emitidoEn)) {
+                        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+                }
+
+                // Se recarga el usuario para que el nuevo token refleje su rol y estado actuales
+                UserPrincipal principal;
+                try {
+                        principal = (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
+                } catch (UsernameNotFoundException e) {
+                        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+                }
+                if (!principal.isEnabled()) {
+                        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+                }
+                return ResponseEntity.ok(emitirTokens(principal));
+        }
+
+        // Revoca el access token del encabezado y, si viene, el refresh token
+        @PostMapping("/logout")
+        public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                        @RequestBody(required = false) RefreshRequest refreshRequest) {
+                if (authorization != null && authorization.startsWith("Bearer ")) {
+                        Claims claims = jwtUtils.parseClaims(authorization.substring(7));
+                        if (claims != null) {
+                                revokedTokens.revoke(claims.getId(), claims.getExpiration());
+                        }
+                }
+                if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+                        Claims claims = jwtUtils.parseRefreshClaims(refreshRequest.getRefreshToken());
+                        if (claims != null) {
+                                revokedTokens.consume(claims.getId(), claims.getExpiration());
+                        }
+                }
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+
+        private JwtResponse emitirTokens(UserPrincipal principal) {
+                List<String> roles = principal.getAuthorities().stream()
                                 .map(item -> item.getAuthority())
                                 .collect(Collectors.toList());
 
-                // Fetch user to get RUT
-                Usuario usuario = usuarioRepository.findByEmail(userDetails.getUsername())
-                                .orElseThrow(() -> new RuntimeException("User not found"));
-
-                return ResponseEntity.ok(new JwtResponse(jwt,
-                                userDetails.getUsername(),
-                                usuario.getRut(),
-                                roles));
+                return new JwtResponse(jwtUtils.generateJwtToken(principal),
+                                jwtUtils.generateRefreshToken(principal.getUsername()),
+                                principal.getUsername(),
+                                principal.getRut(),
+                                roles);
         }
 }
@@ -1,8 +1,10 @@
 package fullstack.backend.controller;
 
 import fullstack.backend.assembler.CarritoModelAssembler;
+import fullstack.backend.dto.OperacionCarrito;
 import fullstack.backend.model.Carrito;
 import fullstack.backend.service.CarritoService;
+import fullstack.backend.service.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -28,6 +30,9 @@ public class CarritoController {
     @Autowired
     private CarritoService carritoService;
 
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
     @Autowired
     private CarritoModelAssembler assembler;
 
@@ -118,7 +123,7 @@ public class CarritoController {
             Carrito carrito = carritoService.obtenerCarritoPorRut(rut);
             return new ResponseEntity<>(assembler.toModel(carrito), HttpStatus.OK);
         } catch (RuntimeException e) {
-            if (e.getMessage().contains("not found")) {
+            if (e.getMessage() != null && e.getMessage().contains("no encontrado")) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
@@ -226,15 +231,67 @@ public class CarritoController {
     }
 
     @PostMapping("/{rutUsuario}/items")
-    @Operation(summary = "Agregar item al carrito", description = "Agrega un producto al carrito del usuario")
+    @Operation(summary = "Agregar item al carrito", description = "Agrega un producto al carrito del usuario. Si el SKU ya está en el carrito se suma la cantidad")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Item agregado; retorna el carrito completo (incluirCarrito=true)"),
+            @ApiResponse(responseCode = "204", description = "Item agregado"),
+            @ApiResponse(responseCode = "400", description = "SKU o cantidad inválidos"),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Un pedido con la misma Idempotency-Key sigue en curso; reintentar tras Retry-After"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key ya usada con otro cuerpo"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
     public ResponseEntity<EntityModel<Carrito>> agregarItem(@PathVariable Integer rutUsuario,
+            @Parameter(description = "Si es true, la respuesta incluye el carrito completo") @RequestParam(defaultValue = "false") Boolean incluirCarrito,
+            @Parameter(description = "Clave única por intento lógico; un reintento con la misma clave no vuelve a sumar la cantidad") @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia,
             @RequestBody ItemRequest request) {
-        try {
-            Carrito carrito = carritoService.agregarItemCarrito(rutUsuario, request.getSku(), request.getCantidad());
-            return new ResponseEntity<>(assembler.toModel(carrito), HttpStatus.OK);
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        if (request.getSku() == null || request.getCantidad() == null || request.getCantidad() < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+        return idempotenciaService.ejecutar(claveIdempotencia, "POST /carritos/" + rutUsuario + "/items?incluirCarrito=" + incluirCarrito, request, () -> {
+            try {
+                carritoService.agregarItemCarrito(rutUsuario, request.getSku(), request.getCantidad());
+                if (!incluirCarrito) {
+                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+                }
+                Carrito carrito = carritoService.obtenerCarritoPorRut(rutUsuario);
+                return new ResponseEntity<>(assembler.toModel(carrito), HttpStatus.OK);
+            } catch (RuntimeException e) {
+                if (e.getMessage() != null && e.getMessage().contains("no encontrado")) {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
+    }
+
+    @PatchMapping("/{rutUsuario}/items")
+    @Operation(summary = "Modificar varios items", description = "Aplica una lista de operaciones AGREGAR, FIJAR o QUITAR sobre los items del carrito en una sola transacción y retorna el carrito final")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operaciones aplicadas; retorna el carrito final"),
+            @ApiResponse(responseCode = "400", description = "Operación inválida o demasiadas operaciones"),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Un pedido con la misma Idempotency-Key sigue en curso; reintentar tras Retry-After"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key ya usada con otro cuerpo"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<EntityModel<Carrito>> modificarItems(@PathVariable Integer rutUsuario,
+            @Parameter(description = "Clave única por intento lógico; un reintento con la misma clave no vuelve a aplicar las operaciones") @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia,
+            @RequestBody List<OperacionCarrito> operaciones) {
+        return idempotenciaService.ejecutar(claveIdempotencia, "PATCH /carritos/" + rutUsuario + "/items", operaciones, () -> {
+            try {
+                carritoService.aplicarOperaciones(rutUsuario, operaciones);
+                Carrito carrito = carritoService.obtenerCarritoPorRut(rutUsuario);
+                return new ResponseEntity<>(assembler.toModel(carrito), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            } catch (RuntimeException e) {
+                if (e.getMessage() != null && e.getMessage().contains("no encontrado")) {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
 
     @PutMapping("/{rutUsuario}/items/{itemId}")
@@ -0,0 +1,125 @@
+package fullstack.backend.controller;
+
+import fullstack.backend.model.Pedido;
+import fullstack.backend.security.UserPrincipal;
+import fullstack.backend.service.IdempotenciaService;
+import fullstack.backend.service.PedidoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/pedidos")
+@Tag(name = "Controlador Pedido", description = "Checkout y consulta de pedidos")
+public class PedidoController {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @PostMapping("/checkout/{rutUsuario}")
+    @Operation(summary = "Checkout", description = "Convierte el carrito del usuario en un pedido: descuenta el stock de todas las líneas y vacía el carrito en una sola transacción")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Pedido creado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Pedido.class))),
+            @ApiResponse(responseCode = "400", description = "Carrito vacío"),
+            @ApiResponse(responseCode = "403", description = "El carrito pertenece a otro usuario"),
+            @ApiResponse(responseCode = "404", description = "Carrito o producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Stock insuficiente, producto no disponible o un checkout con la misma Idempotency-Key sigue en curso (con Retry-After)"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El RUT del usuario", example = "12345678")
+    public ResponseEntity<Pedido> checkout(@PathVariable Integer rutUsuario,
+            @Parameter(description = "Clave única por intento de compra; un reintento con la misma clave retorna el pedido ya creado") @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (!puedeAcceder(principal, rutUsuario)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return idempotenciaService.ejecutar(claveIdempotencia, "POST /pedidos/checkout/" + rutUsuario, null, () -> {
+            try {
+                return new ResponseEntity<>(pedidoService.checkout(rutUsuario), HttpStatus.CREATED);
+            } catch (RuntimeException e) {
+                String mensaje = e.getMessage() == null ? "" : e.getMessage();
+                if (mensaje.contains("no encontrado")) {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+                if (mensaje.contains("Stock insuficiente") || mensaje.contains("no disponible")) {
+                    return new ResponseEntity<>(HttpStatus.CONFLICT);
+                }
+                if (mensaje.contains("vacío") || mensaje.contains("supera")) {
+                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+                }
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar pedido por ID", description = "Obtiene un pedido con sus líneas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna Pedido"),
+            @ApiResponse(responseCode = "404", description = "Pedido no encontrado", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El ID del pedido", example = "1")
+    public ResponseEntity<Pedido> getPedidoById(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            Optional<Pedido> pedido = pedidoService.getPedidoById(id);
+            // Un pedido ajeno se responde como inexistente para no revelar qué IDs existen
+            if (pedido.isPresent() && puedeAcceder(principal, pedido.get().getRutUsuario())) {
+                return new ResponseEntity<>(pedido.get(), HttpStatus.OK);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/usuario/{rutUsuario}")
+    @Operation(summary = "Pedidos de un usuario", description = "Obtiene los pedidos de un usuario, del más reciente al más antiguo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna la lista de pedidos"),
+            @ApiResponse(responseCode = "403", description = "Los pedidos pertenecen a otro usuario", content = @Content),
+            @ApiResponse(responseCode = "404", description = "El usuario no tiene pedidos", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El RUT del usuario", example = "12345678")
+    public ResponseEntity<List<Pedido>> getPedidosByRut(@PathVariable Integer rutUsuario, @AuthenticationPrincipal UserPrincipal principal) {
+        if (!puedeAcceder(principal, rutUsuario)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        try {
+            List<Pedido> pedidos = pedidoService.getPedidosByRut(rutUsuario);
+            if (pedidos.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            } else {
+                return new ResponseEntity<>(pedidos, HttpStatus.OK);
+            }
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Solo el dueño del RUT o un ADMIN operan sobre sus pedidos
+    private boolean puedeAcceder(UserPrincipal principal, Integer rutUsuario) {
+        if (principal == null) {
+            return false;
+        }
+        boolean admin = principal.getAuthorities().stream()
+                .anyMatch(autoridad -> "ROLE_ADMIN".equals(autoridad.getAuthority()));
+        return admin || (rutUsuario != null && rutUsuario.equals(principal.getRut()));
+    }
+}
@@ -1,8 +1,21 @@
 package fullstack.backend.controller;
 
 import fullstack.backend.assembler.ProductoModelAssembler;
+import fullstack.backend.assembler.ProductoResumenModelAssembler;
+import fullstack.backend.dto.Calificacion;
+import fullstack.backend.dto.Facetas;
+import fullstack.backend.dto.ProductoFiltro;
+import fullstack.backend.dto.ProductoPorSku;
+import fullstack.backend.dto.ProductoResumen;
+import fullstack.backend.dto.ResultadoImportacion;
+import fullstack.backend.service.CalificacionService;
+import fullstack.backend.service.ExportacionProductoService;
+import fullstack.backend.service.ImportacionProductoService;
 import fullstack.backend.model.Producto;
+import fullstack.backend.security.UserPrincipal;
 import fullstack.backend.service.ProductoService;
+import fullstack.backend.utils.ETags;
+import fullstack.backend.utils.SalidaEmisor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,26 +25,68 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
 @RequestMapping("/api/v1/productos")
 @Tag(name = "Controlador Producto", description = "Servicios de gestión de productos")
 public class ProductoController {
 
+    private static final String TAMANO_PAGINA = "50";
+    private static final int TAMANO_PAGINA_MAXIMO = 500;
+    private static final int SKUS_POR_CONSULTA_MAXIMO = 500;
+    // /filtro pagina por desplazamiento; más allá de este número de filas se pide afinar el filtro
+    private static final int DESPLAZAMIENTO_FILTRO_MAXIMO = 10_000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int TAMANO_BLOQUE_EXPORTACION = 64 * 1024;
+
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private ImportacionProductoService importacionService;
+
+    @Autowired
+    private ExportacionProductoService exportacionService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${catalogo.exportacion.timeoutMs:1800000}")
+    private long exportacionTimeoutMs;
+
+    @Autowired
+    private CalificacionService calificacionService;
+
     @Autowired
     private ProductoModelAssembler assembler;
 
+    @Autowired
+    private ProductoResumenModelAssembler resumenAssembler;
+
     // C
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -52,22 +107,68 @@ public class ProductoController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar productos", description = "Carga masiva desde NDJSON (un producto por línea) o CSV con cabecera. Artista y sello se indican por nombre")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna el resumen de la importación: el total de errores y el detalle de los primeros por fila"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ResultadoImportacion> importarProductos(
+            @Parameter(description = "Si es true, los SKU existentes se actualizan (salvo stock y disponibilidad) en lugar de reportarse como error") @RequestParam(defaultValue = "false") Boolean actualizar,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream cuerpo) {
+        try {
+            boolean esCsv = contentType.toLowerCase().startsWith("text/csv");
+            return new ResponseEntity<>(importacionService.importar(cuerpo, esCsv, actualizar), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exportar productos", description = "Descarga el catálogo completo como NDJSON, un producto por línea ordenado por SKU")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON con todos los productos"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ResponseBodyEmitter> exportarProductos() {
+        // El plazo largo aplica solo a esta respuesta; el resto de peticiones async conserva el global
+        ResponseBodyEmitter emisor = new ResponseBodyEmitter(exportacionTimeoutMs);
+        taskExecutor.execute(() -> {
+            try (OutputStream salida = new BufferedOutputStream(new SalidaEmisor(emisor, NDJSON), TAMANO_BLOQUE_EXPORTACION)) {
+                exportacionService.exportar(salida);
+            } catch (Exception e) {
+                emisor.completeWithError(e);
+                return;
+            }
+            emisor.complete();
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(emisor);
+    }
+
     // R
     @GetMapping
     @Operation(summary = "Obtener productos", description = "Obtiene la lista de productos registrados")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Retorna lista completa de productos"),
+            @ApiResponse(responseCode = "200", description = "Retorna una página de productos ordenada por SKU"),
             @ApiResponse(responseCode = "404", description = "No se encuentran productos", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Producto>>> getAllProductos() {
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> getAllProductos(
+            @Parameter(description = "SKU del último producto de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de productos por página") @RequestParam(defaultValue = TAMANO_PAGINA) Integer tamano,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Producto> productos = productoService.getAllProductos();
-            if (productos.isEmpty()) {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            } else {
-                return new ResponseEntity<>(assembler.toCollectionModel(productos), HttpStatus.OK);
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
             }
+            int limite = limitarTamano(tamano);
+            List<ProductoResumen> productos = productoService.getProductosPage(cursor, limite + 1);
+            return pagina(productos, limite, etag,
+                    siguiente -> methodOn(ProductoController.class).getAllProductos(siguiente, limite, null));
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -76,23 +177,149 @@ public class ProductoController {
     @GetMapping("/disponibles")
     @Operation(summary = "Obtener productos disponibles", description = "Obtiene la lista de productos disponibles")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Retorna lista de productos disponibles"),
+            @ApiResponse(responseCode = "200", description = "Retorna una página de productos disponibles"),
             @ApiResponse(responseCode = "404", description = "No se encuentran productos disponibles", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Producto>>> getAvailableProductos() {
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> getAvailableProductos(
+            @Parameter(description = "SKU del último producto de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de productos por página") @RequestParam(defaultValue = TAMANO_PAGINA) Integer tamano,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
+            int limite = limitarTamano(tamano);
+            List<ProductoResumen> productos = productoService.getAvailableProductosPage(cursor, limite + 1);
+            return pagina(productos, limite, etag,
+                    siguiente -> methodOn(ProductoController.class).getAvailableProductos(siguiente, limite, null));
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Obtener facetas", description = "Conteo de productos disponibles por tipo de formato, artista, sello y década de lanzamiento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna los conteos por faceta"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<Facetas> getFacetas(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Producto> productos = productoService.getAvailableProductos();
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
+            return ETags.ok(etag).body(productoService.getFacetas());
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Buscar productos", description = "Búsqueda por texto en título, artista, sello y descripción, ordenada por relevancia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna productos que contienen todos los términos buscados"),
+            @ApiResponse(responseCode = "404", description = "No se encuentran productos", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> searchProductos(
+            @Parameter(description = "Términos de búsqueda", example = "abbey road") @RequestParam String q,
+            @Parameter(description = "Cantidad máxima de resultados") @RequestParam(defaultValue = TAMANO_PAGINA) Integer tamano,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
+            List<ProductoResumen> productos = productoService.searchProductos(q, limitarTamano(tamano));
             if (productos.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             } else {
-                return new ResponseEntity<>(assembler.toCollectionModel(productos), HttpStatus.OK);
+                return ETags.ok(etag).body(resumenAssembler.toCollectionModel(productos));
             }
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @GetMapping("/filtro")
+    @Operation(summary = "Filtrar productos", description = "Combina rango de precio y año, formato, artista, sello, disponibilidad y calificación mínima en una sola consulta. Ordena por sku, precio, anioLanzamiento o calificacionPromedio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna una página de productos que cumplen todos los criterios"),
+            @ApiResponse(responseCode = "400", description = "Criterio de orden no soportado o página demasiado profunda", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No hay productos que cumplan los criterios", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> filtrarProductos(
+            @Parameter(description = "Precio mínimo") @RequestParam(required = false) Integer precioMin,
+            @Parameter(description = "Precio máximo") @RequestParam(required = false) Integer precioMax,
+            @Parameter(description = "Año de lanzamiento desde") @RequestParam(required = false) Integer anioDesde,
+            @Parameter(description = "Año de lanzamiento hasta") @RequestParam(required = false) Integer anioHasta,
+            @Parameter(description = "Tipo de formato", example = "VINYL") @RequestParam(required = false) String tipoFormato,
+            @Parameter(description = "ID del artista") @RequestParam(required = false) Long artistaId,
+            @Parameter(description = "ID del sello") @RequestParam(required = false) Long selloId,
+            @Parameter(description = "Solo disponibles (true) o no disponibles (false)") @RequestParam(required = false) Boolean disponible,
+            @Parameter(description = "Calificación promedio mínima") @RequestParam(required = false) Double calificacionMin,
+            @Parameter(description = "Campo de orden", example = "precio") @RequestParam(defaultValue = ProductoFiltro.ORDEN_SKU) String orden,
+            @Parameter(description = "Orden descendente") @RequestParam(defaultValue = "false") Boolean descendente,
+            @Parameter(description = "Número de página, desde 0") @RequestParam(defaultValue = "0") Integer pagina,
+            @Parameter(description = "Cantidad de productos por página") @RequestParam(defaultValue = TAMANO_PAGINA) Integer tamano,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!ProductoFiltro.ordenValido(orden) || pagina < 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
+            ProductoFiltro filtro = new ProductoFiltro(precioMin, precioMax, anioDesde, anioHasta, tipoFormato,
+                    artistaId, selloId, disponible, calificacionMin, orden, descendente);
+            int limite = limitarTamano(tamano);
+            long desde = (long) pagina * limite;
+            if (desde > DESPLAZAMIENTO_FILTRO_MAXIMO) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<ProductoResumen> productos = productoService.filtrarProductos(filtro, (int) desde, limite + 1);
+            if (productos.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            boolean haySiguiente = productos.size() > limite;
+            CollectionModel<EntityModel<ProductoResumen>> modelo = resumenAssembler.toCollectionModel(
+                    haySiguiente ? productos.subList(0, limite) : productos);
+            if (haySiguiente) {
+                modelo.add(linkTo(methodOn(ProductoController.class).filtrarProductos(precioMin, precioMax, anioDesde,
+                        anioHasta, tipoFormato, artistaId, selloId, disponible, calificacionMin, orden, descendente,
+                        pagina + 1, limite, null)).withRel(IanaLinkRelations.NEXT));
+            }
+            return ETags.ok(etag).body(modelo);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping(params = "sku")
+    @Operation(summary = "Obtener productos por SKU", description = "Resuelve varios SKU en una sola petición, por ejemplo ?sku=a&sku=b. El resultado respeta el orden pedido e indica los SKU inexistentes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna una entrada por SKU solicitado, con encontrado=false si no existe"),
+            @ApiResponse(responseCode = "400", description = "Se pidieron más SKU de los permitidos", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<List<ProductoPorSku>> getProductosBySkus(
+            @Parameter(description = "SKU a consultar, repetible", example = "abbey-road-vinilo") @RequestParam List<String> sku) {
+        if (sku.size() > SKUS_POR_CONSULTA_MAXIMO) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(productoService.getProductosBySkus(sku), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar producto por ID", description = "Obtiene un producto según el ID registrado en el sistema")
     @ApiResponses(value = {
@@ -101,11 +328,17 @@ public class ProductoController {
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @Parameter(description = "El ID del producto", example = "abbey-road-vinilo")
-    public ResponseEntity<EntityModel<Producto>> getProductoById(@PathVariable String id) {
+    public ResponseEntity<EntityModel<Producto>> getProductoById(@PathVariable String id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             Optional<Producto> productoOptional = productoService.getProductoById(id);
             if (productoOptional.isPresent()) {
-                return new ResponseEntity<>(assembler.toModel(productoOptional.get()), HttpStatus.OK);
+                Producto producto = productoOptional.get();
+                String etag = ETags.deEntidad(producto.getSku(), producto.getActualizadoEn());
+                if (ETags.coincide(ifNoneMatch, etag)) {
+                    return ETags.noModificado(etag);
+                }
+                return ETags.ok(etag).body(assembler.toModel(producto));
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -114,10 +347,95 @@ public class ProductoController {
         }
     }
 
+    @PostMapping("/{id}/calificaciones")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Calificar producto", description = "Registra una calificación de 1 a 5. Cada usuario tiene un voto por producto: volver a calificar reemplaza el anterior. El promedio y el conteo del producto se actualizan en segundo plano dentro de pocos segundos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Calificación registrada"),
+            @ApiResponse(responseCode = "400", description = "Puntaje fuera del rango 1 a 5"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El ID del producto", example = "abbey-road-vinilo")
+    public ResponseEntity<Void> calificarProducto(@PathVariable String id, @RequestBody Calificacion calificacion,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (calificacion == null || !calificacion.esValida()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            if (productoService.getProductoById(id).isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            calificacionService.calificar(id, principal.getRut(), calificacion.puntaje());
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PatchMapping("/{id}/stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Ajustar stock", description = "Suma o resta unidades al stock con un UPDATE atómico, sin pisar reservas ni compras concurrentes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Stock ajustado"),
+            @ApiResponse(responseCode = "400", description = "Ajuste igual a cero"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "El ajuste dejaría el stock en negativo"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El ID del producto", example = "abbey-road-vinilo")
+    public ResponseEntity<Void> ajustarStock(@PathVariable String id,
+            @Parameter(description = "Unidades a sumar (positivo) o restar (negativo)") @RequestParam Integer delta) {
+        if (delta == null || delta == 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            if (productoService.ajustarStock(id, delta)) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("no encontrado")) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PatchMapping("/{id}/disponibilidad")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Cambiar disponibilidad", description = "Retira un producto de la venta o lo vuelve a ofrecer sin modificar su stock. Al llegar a cero unidades el producto se retira solo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Disponibilidad actualizada"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "No se puede activar un producto sin stock"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El ID del producto", example = "abbey-road-vinilo")
+    public ResponseEntity<Void> cambiarDisponibilidad(@PathVariable String id,
+            @Parameter(description = "true para ofrecerlo, false para retirarlo de la venta") @RequestParam Boolean disponible) {
+        if (disponible == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            if (productoService.cambiarDisponibilidad(id, disponible)) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("no encontrado")) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // U
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Actualizar producto", description = "Permite actualizar los datos de un producto según su ID")
+    @Operation(summary = "Actualizar producto", description = "Permite actualizar los datos de un producto según su ID. Stock y disponibilidad se ignoran: se ajustan con PATCH /{id}/stock y PATCH /{id}/disponibilidad")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto modificado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Producto.class))),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
@@ -168,19 +486,24 @@ public class ProductoController {
     @GetMapping("/artista/{artistaId}")
     @Operation(summary = "Buscar productos por artista", description = "Obtiene productos según el ID del artista")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Retorna lista de productos del artista"),
+            @ApiResponse(responseCode = "200", description = "Retorna una página de productos del artista"),
             @ApiResponse(responseCode = "404", description = "No se encuentran productos para el artista", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @Parameter(description = "El ID del artista", example = "1")
-    public ResponseEntity<CollectionModel<EntityModel<Producto>>> getProductosByArtista(@PathVariable Long artistaId) {
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> getProductosByArtista(
+            @Parameter(description = "El ID del artista", example = "1") @PathVariable Long artistaId,
+            @Parameter(description = "SKU del último producto de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de productos por página") @RequestParam(defaultValue = TAMANO_PAGINA) Integer tamano,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Producto> productos = productoService.getProductosByArtista(artistaId);
-            if (productos.isEmpty()) {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            } else {
-                return new ResponseEntity<>(assembler.toCollectionModel(productos), HttpStatus.OK);
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
             }
+            int limite = limitarTamano(tamano);
+            List<ProductoResumen> productos = productoService.getProductosByArtistaPage(artistaId, cursor, limite + 1);
+            return pagina(productos, limite, etag,
+                    siguiente -> methodOn(ProductoController.class).getProductosByArtista(artistaId, siguiente, limite, null));
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -189,22 +512,49 @@ public class ProductoController {
     @GetMapping("/formato/{tipoFormato}")
     @Operation(summary = "Buscar productos por formato", description = "Obtiene productos según el tipo de formato")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Retorna lista de productos del formato"),
+            @ApiResponse(responseCode = "200", description = "Retorna una página de productos del formato"),
             @ApiResponse(responseCode = "404", description = "No se encuentran productos para el formato", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    @Parameter(description = "El tipo de formato", example = "VINYL")
-    public ResponseEntity<CollectionModel<EntityModel<Producto>>> getProductosByFormato(
-            @PathVariable String tipoFormato) {
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> getProductosByFormato(
+            @Parameter(description = "El tipo de formato", example = "VINYL") @PathVariable String tipoFormato,
+            @Parameter(description = "SKU del último producto de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de productos por página") @RequestParam(defaultValue = TAMANO_PAGINA) Integer tamano,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Producto> productos = productoService.getProductosByFormato(tipoFormato);
-            if (productos.isEmpty()) {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-            } else {
-                return new ResponseEntity<>(assembler.toCollectionModel(productos), HttpStatus.OK);
+            String etag = productoService.getEtagCatalogo();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
             }
+            int limite = limitarTamano(tamano);
+            List<ProductoResumen> productos = productoService.getProductosByFormatoPage(tipoFormato, cursor, limite + 1);
+            return pagina(productos, limite, etag,
+                    siguiente -> methodOn(ProductoController.class).getProductosByFormato(tipoFormato, siguiente, limite, null));
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    private static int limitarTamano(Integer tamano) {
+        if (tamano == null || tamano < 1) {
+            return Integer.parseInt(TAMANO_PAGINA);
+        }
+        return Math.min(tamano, TAMANO_PAGINA_MAXIMO);
+    }
+
+    // Recibe hasta limite + 1 productos: el sobrante solo indica que existe una página siguiente
+    private ResponseEntity<CollectionModel<EntityModel<ProductoResumen>>> pagina(List<ProductoResumen> productos,
+            int limite, String etag, Function<String, Object> siguiente) {
+        if (productos.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        boolean haySiguiente = productos.size() > limite;
+        List<ProductoResumen> contenido = haySiguiente ? productos.subList(0, limite) : productos;
+        CollectionModel<EntityModel<ProductoResumen>> modelo = resumenAssembler.toCollectionModel(contenido);
+        if (haySiguiente) {
+            String ultimoSku = contenido.get(contenido.size() - 1).sku();
+            modelo.add(linkTo(siguiente.apply(ultimoSku)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ETags.ok(etag).body(modelo);
+    }
 }
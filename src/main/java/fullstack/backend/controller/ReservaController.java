@@ -0,0 +1,133 @@
+package fullstack.backend.controller;
+
+import fullstack.backend.dto.Reserva;
+import fullstack.backend.dto.SolicitudReserva;
+import fullstack.backend.security.UserPrincipal;
+import fullstack.backend.service.ReservaStockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/reservas")
+@Tag(name = "Controlador Reserva", description = "Reservas temporales de stock de productos")
+public class ReservaController {
+
+    @Autowired
+    private ReservaStockService reservaStockService;
+
+    @PostMapping
+    @Operation(summary = "Reservar stock", description = "Descuenta stock de un producto y lo aparta durante un tiempo limitado. Si no se confirma antes de expirar, vuelve al inventario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reserva creada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Reserva.class))),
+            @ApiResponse(responseCode = "400", description = "SKU inválido o cantidad fuera del máximo por reserva"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Stock insuficiente o límite de unidades reservadas por usuario alcanzado"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<Reserva> reservar(@RequestBody SolicitudReserva solicitud,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        if (solicitud == null || solicitud.sku() == null || solicitud.cantidad() == null || solicitud.cantidad() < 1
+                || solicitud.cantidad() > reservaStockService.getMaximoPorReserva()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Optional<Reserva> reserva = reservaStockService.reservar(solicitud.sku(), solicitud.cantidad(),
+                    principal.getRut());
+            if (reserva.isPresent()) {
+                return new ResponseEntity<>(reserva.get(), HttpStatus.CREATED);
+            } else {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("no encontrado")) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener reserva", description = "Obtiene una reserva vigente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna la reserva"),
+            @ApiResponse(responseCode = "404", description = "Reserva inexistente, ajena, confirmada, liberada o expirada", content = @Content)
+    })
+    @Parameter(description = "El ID de la reserva")
+    public ResponseEntity<Reserva> getReserva(@PathVariable String id, @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return reservaStockService.getReserva(id, rutPropietario(principal))
+                .map(reserva -> new ResponseEntity<>(reserva, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping("/{id}/confirmacion")
+    @Operation(summary = "Confirmar reserva", description = "Convierte la reserva en venta: el stock queda descontado definitivamente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reserva confirmada"),
+            @ApiResponse(responseCode = "404", description = "Reserva inexistente, ajena o expirada"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El ID de la reserva")
+    public ResponseEntity<Void> confirmar(@PathVariable String id, @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            if (reservaStockService.confirmar(id, rutPropietario(principal))) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Liberar reserva", description = "Cancela la reserva y devuelve el stock al inventario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+            @ApiResponse(responseCode = "404", description = "Reserva inexistente, ajena o ya finalizada"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @Parameter(description = "El ID de la reserva")
+    public ResponseEntity<Void> liberar(@PathVariable String id, @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            if (reservaStockService.liberar(id, rutPropietario(principal))) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            } else {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Un administrador opera sobre cualquier reserva; el resto solo sobre las propias
+    private Integer rutPropietario(UserPrincipal principal) {
+        boolean admin = principal.getAuthorities().stream()
+                .anyMatch(autoridad -> "ROLE_ADMIN".equals(autoridad.getAuthority()));
+        return admin ? null : principal.getRut();
+    }
+}
@@ -1,8 +1,10 @@
 package fullstack.backend.controller;
 
 import fullstack.backend.assembler.SelloModelAssembler;
+import fullstack.backend.dto.Sugerencia;
 import fullstack.backend.model.Sello;
 import fullstack.backend.service.SelloService;
+import fullstack.backend.utils.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +16,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -60,19 +63,45 @@ public class SelloController {
             @ApiResponse(responseCode = "404", description = "No se encuentran sellos discográficos", content = @Content),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Sello>>> getAllSellos() {
+    public ResponseEntity<CollectionModel<EntityModel<Sello>>> getAllSellos(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = selloService.getEtagSellos();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
             List<Sello> sellos = selloService.getAllSellos();
             if (sellos.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             } else {
-                return new ResponseEntity<>(assembler.toCollectionModel(sellos), HttpStatus.OK);
+                return ETags.ok(etag).body(assembler.toCollectionModel(sellos));
             }
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Sugerir sellos", description = "Autocompletado por prefijo de cualquier palabra del nombre, sin distinguir mayúsculas ni tildes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Retorna las sugerencias encontradas, posiblemente vacía"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<List<Sugerencia>> sugerirSellos(
+            @Parameter(description = "Texto escrito por el usuario", example = "Apple") @RequestParam String q,
+            @Parameter(description = "Cantidad máxima de sugerencias") @RequestParam(defaultValue = "10") Integer limite,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            String etag = selloService.getEtagSellos();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
+            return ETags.ok(etag).body(selloService.sugerirSellos(q, Math.max(1, Math.min(limite, 50))));
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar sello discográfico por ID", description = "Obtiene un sello discográfico según el ID registrado en el sistema")
     @ApiResponses(value = {
@@ -81,11 +110,16 @@ public class SelloController {
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @Parameter(description = "El ID del sello discográfico", example = "1")
-    public ResponseEntity<EntityModel<Sello>> getSelloById(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Sello>> getSelloById(@PathVariable Long id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = selloService.getEtagSellos();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
             Optional<Sello> selloOptional = selloService.getSelloById(id);
             if (selloOptional.isPresent()) {
-                return new ResponseEntity<>(assembler.toModel(selloOptional.get()), HttpStatus.OK);
+                return ETags.ok(etag).body(assembler.toModel(selloOptional.get()));
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -102,11 +136,16 @@ public class SelloController {
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @Parameter(description = "El nombre del sello discográfico", example = "Beat Bazaar Records")
-    public ResponseEntity<EntityModel<Sello>> getSelloByNombre(@RequestParam String nombre) {
+    public ResponseEntity<EntityModel<Sello>> getSelloByNombre(@RequestParam String nombre,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = selloService.getEtagSellos();
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ETags.noModificado(etag);
+            }
             Optional<Sello> selloOptional = selloService.getSelloByNombre(nombre);
             if (selloOptional.isPresent()) {
-                return new ResponseEntity<>(assembler.toModel(selloOptional.get()), HttpStatus.OK);
+                return ETags.ok(etag).body(assembler.toModel(selloOptional.get()));
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
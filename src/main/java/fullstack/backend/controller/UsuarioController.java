@@ -2,6 +2,7 @@ package fullstack.backend.controller;
 
 import fullstack.backend.assembler.UsuarioModelAssembler;
 import fullstack.backend.model.Usuario;
+import fullstack.backend.security.BoundedPasswordEncoder;
 import fullstack.backend.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,12 +15,14 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/usuarios")
@@ -32,18 +35,24 @@ public class UsuarioController {
     @Autowired
     private UsuarioModelAssembler assembler;
 
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
     // C
     @PostMapping
     @Operation(summary = "Agregar Usuario", description = "Permite registrar un usuario en el sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Usuario creado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))),
             @ApiResponse(responseCode = "400", description = "JSON con mal formato o datos duplicados"),
+            @ApiResponse(responseCode = "503", description = "Cola de hashing de contraseñas llena, reintentar luego"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     public ResponseEntity<EntityModel<Usuario>> crearUsuario(@RequestBody @Valid Usuario usuario) {
         try {
             Usuario usuarioCreado = usuarioService.crearUsuario(usuario);
             return new ResponseEntity<>(assembler.toModel(usuarioCreado), HttpStatus.CREATED);
+        } catch (RejectedExecutionException e) {
+            return hashingSaturado();
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
@@ -122,6 +131,7 @@ public class UsuarioController {
             @ApiResponse(responseCode = "200", description = "Usuario modificado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Usuario.class))),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
             @ApiResponse(responseCode = "400", description = "JSON con mal formato o datos duplicados"),
+            @ApiResponse(responseCode = "503", description = "Cola de hashing de contraseñas llena, reintentar luego"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @Parameter(description = "El ID del usuario", example = "1")
@@ -130,6 +140,8 @@ public class UsuarioController {
         try {
             Usuario usuarioActualizado = usuarioService.actualizarUsuario(rut, usuario);
             return new ResponseEntity<>(assembler.toModel(usuarioActualizado), HttpStatus.OK);
+        } catch (RejectedExecutionException e) {
+            return hashingSaturado();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("not found")) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -163,4 +175,11 @@ public class UsuarioController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    // El pool de hashing está saturado: se pide reintentar en vez de bloquear el hilo
+    private <T> ResponseEntity<T> hashingSaturado() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordEncoder.getRetryAfterSeconds()))
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package fullstack.backend.dto;
+
+public record Calificacion(Integer puntaje) {
+
+    public static final int PUNTAJE_MINIMO = 1;
+    public static final int PUNTAJE_MAXIMO = 5;
+
+    public boolean esValida() {
+        return puntaje != null && puntaje >= PUNTAJE_MINIMO && puntaje <= PUNTAJE_MAXIMO;
+    }
+}
@@ -0,0 +1,4 @@
+package fullstack.backend.dto;
+
+public record CantidadPorSku(String sku, Long cantidad) {
+}
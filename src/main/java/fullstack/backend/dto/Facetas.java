@@ -0,0 +1,8 @@
+package fullstack.backend.dto;
+
+import java.util.Map;
+
+// Conteo de productos disponibles por cada valor de faceta. Artistas y sellos van por id.
+public record Facetas(Map<String, Long> tiposFormato, Map<String, Long> artistas, Map<String, Long> sellos,
+        Map<Integer, Long> decadas) {
+}
@@ -7,6 +7,7 @@ import java.util.List;
 @Data
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private String email;
     private Integer rut;
@@ -18,4 +19,9 @@ public class JwtResponse {
         this.rut = rut;
         this.roles = roles;
     }
+
+    public JwtResponse(String accessToken, String refreshToken, String email, Integer rut, List<String> roles) {
+        this(accessToken, email, rut, roles);
+        this.refreshToken = refreshToken;
+    }
 }
@@ -0,0 +1,10 @@
+package fullstack.backend.dto;
+
+// Cambio sobre un item del carrito identificado por SKU:
+// AGREGAR suma cantidad, FIJAR reemplaza la cantidad (0 quita el item) y QUITAR elimina el item
+public record OperacionCarrito(Tipo tipo, String sku, Integer cantidad) {
+
+    public enum Tipo {
+        AGREGAR, FIJAR, QUITAR
+    }
+}
@@ -0,0 +1,26 @@
+package fullstack.backend.dto;
+
+// Criterios combinables del filtro de catálogo; los null no restringen
+public record ProductoFiltro(
+        Integer precioMin,
+        Integer precioMax,
+        Integer anioDesde,
+        Integer anioHasta,
+        String tipoFormato,
+        Long artistaId,
+        Long selloId,
+        Boolean disponible,
+        Double calificacionMin,
+        String orden,
+        boolean descendente) {
+
+    public static final String ORDEN_SKU = "sku";
+    public static final String ORDEN_PRECIO = "precio";
+    public static final String ORDEN_ANIO = "anioLanzamiento";
+    public static final String ORDEN_CALIFICACION = "calificacionPromedio";
+
+    public static boolean ordenValido(String orden) {
+        return ORDEN_SKU.equals(orden) || ORDEN_PRECIO.equals(orden)
+                || ORDEN_ANIO.equals(orden) || ORDEN_CALIFICACION.equals(orden);
+    }
+}
@@ -0,0 +1,23 @@
+package fullstack.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+// Fila de importación masiva: artista y sello se indican por nombre y deben existir previamente.
+// Las restricciones se revisan fila a fila con el Validator de la aplicación.
+public record ProductoImportacion(
+        @NotBlank @Size(max = 50) String sku,
+        @NotBlank String titulo,
+        @NotBlank String artista,
+        @NotBlank String sello,
+        @NotBlank String nombreFormato,
+        @NotBlank String tipoFormato,
+        @NotBlank String urlImagen,
+        @PositiveOrZero Integer anioLanzamiento,
+        String descripcion,
+        @NotNull @PositiveOrZero Integer precio,
+        @PositiveOrZero Integer cantidadStock,
+        Boolean estaDisponible) {
+}
@@ -0,0 +1,5 @@
+package fullstack.backend.dto;
+
+// Resultado de la consulta múltiple: producto es null cuando el SKU no existe
+public record ProductoPorSku(String sku, boolean encontrado, ProductoResumen producto) {
+}
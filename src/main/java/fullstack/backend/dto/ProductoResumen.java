@@ -0,0 +1,13 @@
+package fullstack.backend.dto;
+
+// Datos de la tarjeta de producto para los listados: sin url_imagen (LOB) ni entidades asociadas
+public record ProductoResumen(
+        String sku,
+        String titulo,
+        String nombreArtista,
+        String nombreSello,
+        Integer precio,
+        String nombreFormato,
+        String tipoFormato,
+        Boolean estaDisponible) {
+}
@@ -0,0 +1,8 @@
+package fullstack.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,16 @@
+package fullstack.backend.dto;
+
+import java.time.Instant;
+
+// Stock apartado para un SKU por un usuario; si no se confirma antes de expiraEn vuelve al inventario
+public record Reserva(String id, String sku, int cantidad, Integer rutUsuario, Instant expiraEn) {
+
+    // rut null representa a un administrador, que puede operar sobre cualquier reserva
+    public boolean perteneceA(Integer rut) {
+        return rut == null || rut.equals(rutUsuario);
+    }
+
+    public boolean expirada(Instant ahora) {
+        return !ahora.isBefore(expiraEn);
+    }
+}
@@ -0,0 +1,12 @@
+package fullstack.backend.dto;
+
+import java.util.List;
+
+// errores guarda como máximo catalogo.importacion.maximoErrores filas; totalErrores las cuenta todas
+public record ResultadoImportacion(int procesadas, int insertadas, int actualizadas, int totalErrores,
+        List<ErrorFila> errores) {
+
+    // linea es 1-based y cuenta la cabecera en CSV
+    public record ErrorFila(long linea, String sku, String mensaje) {
+    }
+}
@@ -0,0 +1,4 @@
+package fullstack.backend.dto;
+
+public record SolicitudReserva(String sku, Integer cantidad) {
+}
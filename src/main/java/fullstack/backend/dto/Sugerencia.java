@@ -0,0 +1,4 @@
+package fullstack.backend.dto;
+
+public record Sugerencia(Long id, String nombre) {
+}
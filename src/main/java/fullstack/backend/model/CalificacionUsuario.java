@@ -0,0 +1,39 @@
+package fullstack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Voto vigente de un usuario sobre un producto. La clave (rut_usuario, sku) deja un solo voto por
+// usuario: votar de nuevo reemplaza el puntaje y el promedio del producto recibe solo la diferencia.
+@Entity
+@Table(name = "calificaciones_usuario")
+@IdClass(CalificacionUsuario.Clave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalificacionUsuario {
+    @Id
+    @Column(name = "rut_usuario")
+    private Integer rutUsuario;
+
+    @Id
+    @Column(length = 50)
+    private String sku;
+
+    @Column(nullable = false)
+    private Integer puntaje;
+
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Integer rutUsuario;
+        private String sku;
+    }
+}
@@ -1,14 +1,18 @@
 package fullstack.backend.model;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
@@ -17,7 +21,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "carrito")
+@Table(name = "carrito", indexes = @Index(name = "idx_carrito_actualizado", columnList = "actualizado_en"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,10 +30,16 @@ public class Carrito {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    // Un carrito por usuario: la restricción única hace idempotente la creación concurrente
     @OneToOne
+    @JoinColumn(name = "usuario_rut", unique = true)
     private Usuario usuario;
 
     @OneToMany(mappedBy = "carrito", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<ItemCarrito> itemsCarrito;
+
+    // Última modificación del carrito o de sus items; los carritos inactivos se purgan por esta fecha
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
 }
@@ -9,12 +9,15 @@ import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "items_carrito")
+// Una fila por SKU en cada carrito: agregar el mismo SKU suma cantidad con un MERGE atómico
+@Table(name = "items_carrito", uniqueConstraints = @UniqueConstraint(name = "uk_items_carrito_carrito_sku",
+        columnNames = { "id_carrito", "sku" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,37 @@
+package fullstack.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "lineas_pedido")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaPedido {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lineas_pedido_seq")
+    @SequenceGenerator(name = "lineas_pedido_seq", sequenceName = "lineas_pedido_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_pedido", nullable = false)
+    @JsonBackReference
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Pedido pedido;
+
+    // Título y precio se copian al pedido: el catálogo puede cambiar después de la compra
+    @Column(nullable = false, length = 50)
+    private String sku;
+
+    @Column(nullable = false)
+    private String titulo;
+
+    @Column(name = "precio_unitario", nullable = false)
+    private Integer precioUnitario;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+}
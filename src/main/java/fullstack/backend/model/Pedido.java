@@ -0,0 +1,35 @@
+package fullstack.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonManagedReference;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "pedidos", indexes = @Index(name = "idx_pedidos_usuario", columnList = "rut_usuario"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Pedido {
+    // Secuencia en vez de IDENTITY para que Hibernate pueda agrupar los INSERT en batches JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "rut_usuario", nullable = false)
+    private Integer rutUsuario;
+
+    @Column(nullable = false)
+    private Integer total;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonManagedReference
+    private List<LineaPedido> lineas = new ArrayList<>();
+}
@@ -6,7 +6,18 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "productos")
+// Índices compuestos terminados en sku: sirven tanto a los filtros por igualdad del listado
+// por cursor como a los órdenes del endpoint de filtro (el sku desempata)
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_productos_disponible_sku", columnList = "esta_disponible, sku"),
+        @Index(name = "idx_productos_artista_sku", columnList = "id_artista, sku"),
+        @Index(name = "idx_productos_sello_sku", columnList = "id_sello, sku"),
+        @Index(name = "idx_productos_formato_sku", columnList = "tipo_formato, sku"),
+        @Index(name = "idx_productos_precio_sku", columnList = "precio, sku"),
+        @Index(name = "idx_productos_anio_sku", columnList = "anio_lanzamiento, sku"),
+        @Index(name = "idx_productos_calificacion_sku", columnList = "calificacion_promedio, sku"),
+        @Index(name = "idx_productos_disponible_precio", columnList = "esta_disponible, precio, sku")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,16 +55,19 @@ public class Producto {
     @Column(nullable = false)
     private Integer precio;
 
-    @Column(name = "cantidad_stock")
+    // Solo cambian con UPDATE condicionales por delta (reservas, checkout, ajuste de stock);
+    // el UPDATE de JPA tras un PUT no los reescribe con un valor leído antes
+    @Column(name = "cantidad_stock", updatable = false)
     private Integer cantidadStock = 0;
 
-    @Column(name = "calificacion_promedio")
+    // Solo los modifica CalificacionService con SQL; JPA nunca los reescribe en un UPDATE
+    @Column(name = "calificacion_promedio", updatable = false)
     private Double calificacionPromedio = 0.0;
 
-    @Column(name = "conteo_calificaciones")
+    @Column(name = "conteo_calificaciones", updatable = false)
     private Integer conteoCalificaciones = 0;
 
-    @Column(name = "esta_disponible")
+    @Column(name = "esta_disponible", updatable = false)
     private Boolean estaDisponible = true;
 
     @Column(name = "creado_en")
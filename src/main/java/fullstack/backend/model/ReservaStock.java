@@ -0,0 +1,34 @@
+package fullstack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Stock apartado y aún sin confirmar. La fila se escribe en la misma transacción que descuenta el
+// stock y se borra en la que lo confirma o devuelve, así ningún reinicio ni nodo pierde unidades.
+@Entity
+@Table(name = "reservas_stock", indexes = {
+        @Index(name = "idx_reservas_stock_expira", columnList = "expira_en"),
+        @Index(name = "idx_reservas_stock_usuario", columnList = "rut_usuario")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaStock {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 50)
+    private String sku;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    @Column(name = "rut_usuario")
+    private Integer rutUsuario;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
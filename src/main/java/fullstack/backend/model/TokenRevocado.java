@@ -0,0 +1,27 @@
+package fullstack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// jti de tokens revocados (logout o refresh ya usado). La fila sirve hasta que el token expira.
+@Entity
+@Table(name = "tokens_revocados", indexes = {
+        @Index(name = "idx_tokens_revocados_revocado", columnList = "revocado_en"),
+        @Index(name = "idx_tokens_revocados_expira", columnList = "expira_en")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocado {
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(name = "revocado_en", nullable = false)
+    private LocalDateTime revocadoEn;
+}
@@ -0,0 +1,29 @@
+package fullstack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Último cambio de seguridad de un usuario (cambio de rol o contraseña, baja, refresh reutilizado).
+// Los tokens emitidos hasta revocado_en se rechazan en todos los nodos. La fila sirve hasta que
+// expira el token más largo emitido antes del cambio.
+@Entity
+@Table(name = "usuarios_revocados", indexes = {
+        @Index(name = "idx_usuarios_revocados_revocado", columnList = "revocado_en"),
+        @Index(name = "idx_usuarios_revocados_expira", columnList = "expira_en")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioRevocado {
+    @Id
+    @Column(length = 255)
+    private String email;
+
+    @Column(name = "revocado_en", nullable = false)
+    private LocalDateTime revocadoEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
@@ -0,0 +1,20 @@
+package fullstack.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Versión compartida de cada colección (productos, artistas, sellos). Cada escritura la incrementa
+// y todos los nodos derivan de ella el ETag de los listados.
+@Entity
+@Table(name = "versiones_coleccion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionColeccion {
+    @Id
+    @Column(length = 50)
+    private String coleccion;
+
+    @Column(nullable = false)
+    private Long version;
+}
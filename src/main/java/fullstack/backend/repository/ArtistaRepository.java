@@ -4,11 +4,15 @@ import fullstack.backend.model.Artista;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ArtistaRepository extends JpaRepository<Artista, Long> {
     Optional<Artista> findByNombreArtista(String nombreArtista);
 
+    List<Artista> findByNombreArtistaIn(Collection<String> nombres);
+
     Boolean existsByNombreArtista(String nombreArtista);
 }
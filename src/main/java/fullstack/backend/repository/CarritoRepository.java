@@ -2,9 +2,25 @@ package fullstack.backend.repository;
 
 import fullstack.backend.model.Carrito;
 import fullstack.backend.model.Usuario;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface CarritoRepository extends JpaRepository<Carrito, Integer> {
     Optional<Carrito> findByUsuario(Usuario usuario);
+
+    // Serializa los checkouts de un mismo carrito: el segundo encuentra el carrito ya vaciado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Carrito c where c.usuario.rut = :rut")
+    Optional<Carrito> findParaCheckoutByRut(@Param("rut") Integer rut);
+
+    @Query("select c.id from Carrito c where c.usuario.rut = :rut")
+    Optional<Integer> findIdByRut(@Param("rut") Integer rut);
+
+    // Carrito, usuario e items en una sola consulta
+    @Query("select distinct c from Carrito c join fetch c.usuario u left join fetch c.itemsCarrito where u.rut = :rut")
+    Optional<Carrito> findConItemsByRut(@Param("rut") Integer rut);
 }
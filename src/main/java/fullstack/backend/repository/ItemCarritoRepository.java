@@ -1,15 +1,30 @@
 package fullstack.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import fullstack.backend.dto.CantidadPorSku;
 import fullstack.backend.model.ItemCarrito;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ItemCarritoRepository extends JpaRepository<ItemCarrito, Integer> {
     Optional<ItemCarrito> findByCarritoId(Integer carritoId);
 
-    void deleteByCarritoId(Integer carritoId);
+    // Borrados en una sola sentencia, sin cargar cada item como entidad
+    @Modifying
+    @Query("delete from ItemCarrito i where i.carrito.id = :carritoId")
+    int deleteByCarritoId(@Param("carritoId") Integer carritoId);
 
-    void deleteBySku(String sku);
+    @Modifying
+    @Query("delete from ItemCarrito i where i.sku = :sku")
+    int deleteBySku(@Param("sku") String sku);
+
+    // Cantidades del carrito agrupadas por SKU, ordenadas para tomar los bloqueos de stock siempre igual
+    @Query("select new fullstack.backend.dto.CantidadPorSku(i.sku, sum(i.cantidad)) from ItemCarrito i "
+            + "where i.carrito.id = :carritoId group by i.sku order by i.sku")
+    List<CantidadPorSku> sumarCantidadesPorSku(@Param("carritoId") Integer carritoId);
 }
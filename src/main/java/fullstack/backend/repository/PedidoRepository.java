@@ -0,0 +1,19 @@
+package fullstack.backend.repository;
+
+import fullstack.backend.model.Pedido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+    @Query("select distinct p from Pedido p left join fetch p.lineas where p.id = :id")
+    Optional<Pedido> findConLineasById(@Param("id") Long id);
+
+    @Query("select distinct p from Pedido p left join fetch p.lineas where p.rutUsuario = :rut order by p.id desc")
+    List<Pedido> findConLineasByRutUsuario(@Param("rut") Integer rut);
+}
@@ -1,19 +1,105 @@
 package fullstack.backend.repository;
 
+import fullstack.backend.dto.ProductoResumen;
 import fullstack.backend.model.Producto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductoRepository extends JpaRepository<Producto, String> {
+public interface ProductoRepository extends JpaRepository<Producto, String>, ProductoRepositoryCustom {
     List<Producto> findByArtistaId(Long artistaId);
 
-    List<Producto> findByTipoFormato(String tipoFormato);
-
-    List<Producto> findByEstaDisponibleTrue();
+    List<Producto> findBySelloId(Long selloId);
 
     List<Producto> findByTituloContainingIgnoreCase(String titulo);
 
     List<Producto> findByArtistaNombreArtistaContainingIgnoreCase(String nombreArtista);
+
+    // Paginación por cursor (keyset) sobre el SKU: el Pageable solo aporta el límite y el orden.
+    // La primera página no lleva cursor porque Oracle trata '' como NULL.
+    List<Producto> findAllBy(Pageable pageable);
+
+    List<Producto> findBySkuGreaterThan(String sku, Pageable pageable);
+
+    // Listados con proyección: una sola consulta con join a artista y sello, sin cargar entidades
+    String RESUMEN = "select new fullstack.backend.dto.ProductoResumen(p.sku, p.titulo, a.nombreArtista, "
+            + "s.nombreSello, p.precio, p.nombreFormato, p.tipoFormato, p.estaDisponible) "
+            + "from Producto p join p.artista a join p.sello s ";
+
+    @Query(RESUMEN + "order by p.sku")
+    List<ProductoResumen> findResumenes(Limit limit);
+
+    @Query(RESUMEN + "where p.sku > :cursor order by p.sku")
+    List<ProductoResumen> findResumenesDesde(@Param("cursor") String cursor, Limit limit);
+
+    @Query(RESUMEN + "where p.estaDisponible = true order by p.sku")
+    List<ProductoResumen> findResumenesDisponibles(Limit limit);
+
+    @Query(RESUMEN + "where p.estaDisponible = true and p.sku > :cursor order by p.sku")
+    List<ProductoResumen> findResumenesDisponiblesDesde(@Param("cursor") String cursor, Limit limit);
+
+    @Query(RESUMEN + "where a.id = :artistaId order by p.sku")
+    List<ProductoResumen> findResumenesByArtista(@Param("artistaId") Long artistaId, Limit limit);
+
+    @Query(RESUMEN + "where a.id = :artistaId and p.sku > :cursor order by p.sku")
+    List<ProductoResumen> findResumenesByArtistaDesde(@Param("artistaId") Long artistaId,
+            @Param("cursor") String cursor, Limit limit);
+
+    @Query(RESUMEN + "where p.tipoFormato = :tipoFormato order by p.sku")
+    List<ProductoResumen> findResumenesByFormato(@Param("tipoFormato") String tipoFormato, Limit limit);
+
+    @Query(RESUMEN + "where p.tipoFormato = :tipoFormato and p.sku > :cursor order by p.sku")
+    List<ProductoResumen> findResumenesByFormatoDesde(@Param("tipoFormato") String tipoFormato,
+            @Param("cursor") String cursor, Limit limit);
+
+    @Query(RESUMEN + "where p.sku in :skus")
+    List<ProductoResumen> findResumenesBySkuIn(@Param("skus") Collection<String> skus);
+
+    @Query("select p.sku from Producto p where p.sku in :skus")
+    List<String> findSkusExistentes(@Param("skus") Collection<String> skus);
+
+    // Descuento condicional: una sola sentencia que bloquea solo la fila y nunca deja stock negativo.
+    // Las expresiones del SET leen el valor previo, así que el CASE detecta que la fila llega a cero.
+    @Modifying
+    @Query("update Producto p set p.cantidadStock = p.cantidadStock - :cantidad, "
+            + "p.estaDisponible = case when p.cantidadStock = :cantidad then false else p.estaDisponible end, "
+            + "p.actualizadoEn = :ahora where p.sku = :sku and p.cantidadStock >= :cantidad")
+    int descontarStock(@Param("sku") String sku, @Param("cantidad") int cantidad, @Param("ahora") LocalDateTime ahora);
+
+    // Igual que descontarStock, pero no aparta unidades de un producto retirado de la venta (reservas)
+    @Modifying
+    @Query("update Producto p set p.cantidadStock = p.cantidadStock - :cantidad, "
+            + "p.estaDisponible = case when p.cantidadStock = :cantidad then false else p.estaDisponible end, "
+            + "p.actualizadoEn = :ahora where p.sku = :sku and p.cantidadStock >= :cantidad and p.estaDisponible = true")
+    int descontarStockDisponible(@Param("sku") String sku, @Param("cantidad") int cantidad,
+            @Param("ahora") LocalDateTime ahora);
+
+    // Un producto que estaba agotado vuelve a quedar disponible al recibir stock
+    @Modifying
+    @Query("update Producto p set p.cantidadStock = p.cantidadStock + :cantidad, "
+            + "p.estaDisponible = case when p.cantidadStock = 0 then true else p.estaDisponible end, "
+            + "p.actualizadoEn = :ahora where p.sku = :sku")
+    int devolverStock(@Param("sku") String sku, @Param("cantidad") int cantidad, @Param("ahora") LocalDateTime ahora);
+
+    // Cambio manual de disponibilidad (por ejemplo, retirar de la venta un producto descontinuado). Solo
+    // toca esa columna y no activa un producto sin stock; retorna 0 si no había nada que cambiar.
+    @Modifying
+    @Query("update Producto p set p.estaDisponible = :disponible, p.actualizadoEn = :ahora "
+            + "where p.sku = :sku and p.estaDisponible <> :disponible and (:disponible = false or p.cantidadStock > 0)")
+    int cambiarDisponibilidad(@Param("sku") String sku, @Param("disponible") boolean disponible,
+            @Param("ahora") LocalDateTime ahora);
+
+    @Query("select p.cantidadStock from Producto p where p.sku = :sku")
+    Integer findCantidadStock(@Param("sku") String sku);
+
+    @Query("select p.sku from Producto p where p.sku in :skus and p.cantidadStock = 0")
+    List<String> findSkusAgotados(@Param("skus") Collection<String> skus);
 }
@@ -0,0 +1,10 @@
+package fullstack.backend.repository;
+
+import fullstack.backend.dto.ProductoFiltro;
+import fullstack.backend.dto.ProductoResumen;
+
+import java.util.List;
+
+public interface ProductoRepositoryCustom {
+    List<ProductoResumen> filtrarResumenes(ProductoFiltro filtro, int desde, int limite);
+}
@@ -0,0 +1,85 @@
+package fullstack.backend.repository;
+
+import fullstack.backend.dto.ProductoFiltro;
+import fullstack.backend.dto.ProductoResumen;
+import fullstack.backend.model.Artista;
+import fullstack.backend.model.Producto;
+import fullstack.backend.model.Sello;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Fragmento de ProductoRepository: arma una única consulta parametrizada con los criterios presentes
+public class ProductoRepositoryImpl implements ProductoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductoResumen> filtrarResumenes(ProductoFiltro filtro, int desde, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductoResumen> consulta = cb.createQuery(ProductoResumen.class);
+        Root<Producto> p = consulta.from(Producto.class);
+        Join<Producto, Artista> a = p.join("artista");
+        Join<Producto, Sello> s = p.join("sello");
+
+        consulta.select(cb.construct(ProductoResumen.class,
+                p.get("sku"), p.get("titulo"), a.get("nombreArtista"), s.get("nombreSello"),
+                p.get("precio"), p.get("nombreFormato"), p.get("tipoFormato"), p.get("estaDisponible")));
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (filtro.precioMin() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(p.get("precio"), filtro.precioMin()));
+        }
+        if (filtro.precioMax() != null) {
+            condiciones.add(cb.lessThanOrEqualTo(p.get("precio"), filtro.precioMax()));
+        }
+        if (filtro.anioDesde() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(p.get("anioLanzamiento"), filtro.anioDesde()));
+        }
+        if (filtro.anioHasta() != null) {
+            condiciones.add(cb.lessThanOrEqualTo(p.get("anioLanzamiento"), filtro.anioHasta()));
+        }
+        if (filtro.tipoFormato() != null) {
+            condiciones.add(cb.equal(p.get("tipoFormato"), filtro.tipoFormato()));
+        }
+        // Se compara la FK de producto para no depender del join en el índice
+        if (filtro.artistaId() != null) {
+            condiciones.add(cb.equal(p.get("artista").get("id"), filtro.artistaId()));
+        }
+        if (filtro.selloId() != null) {
+            condiciones.add(cb.equal(p.get("sello").get("id"), filtro.selloId()));
+        }
+        if (filtro.disponible() != null) {
+            condiciones.add(cb.equal(p.get("estaDisponible"), filtro.disponible()));
+        }
+        if (filtro.calificacionMin() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(p.get("calificacionPromedio"), filtro.calificacionMin()));
+        }
+        consulta.where(condiciones.toArray(new Predicate[0]));
+
+        // El SKU desempata para que el orden sea total y las páginas no se solapen
+        List<Order> orden = new ArrayList<>(2);
+        String campo = filtro.orden() == null ? ProductoFiltro.ORDEN_SKU : filtro.orden();
+        if (!ProductoFiltro.ORDEN_SKU.equals(campo)) {
+            Path<Object> ruta = p.get(campo);
+            orden.add(filtro.descendente() ? cb.desc(ruta) : cb.asc(ruta));
+        }
+        orden.add(filtro.descendente() ? cb.desc(p.get("sku")) : cb.asc(p.get("sku")));
+        consulta.orderBy(orden);
+
+        return entityManager.createQuery(consulta)
+                .setFirstResult(desde)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
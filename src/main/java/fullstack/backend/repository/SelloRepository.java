@@ -3,11 +3,15 @@ package fullstack.backend.repository;
 import fullstack.backend.model.Sello;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SelloRepository extends JpaRepository<Sello, Long> {
     Optional<Sello> findByNombreSello(String nombreSello);
 
+    List<Sello> findByNombreSelloIn(Collection<String> nombres);
+
     Boolean existsByNombreSello(String nombreSello);
 }
@@ -4,7 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,22 +18,32 @@ import java.io.IOException;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    @Autowired
+    private TokenCache tokenCache;
+
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private RevokedUsers revokedUsers;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
+    // Stateless mode builds the principal from the token claims alone, without touching the database
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
+            UserDetails userDetails = null;
+            if (jwt != null) {
+                userDetails = stateless ? resolveStateless(jwt) : tokenCache.resolve(jwt);
+            }
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -48,6 +60,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     }
 
+    private UserDetails resolveStateless(String jwt) {
+        Claims claims = jwtUtils.parseClaims(jwt);
+        Long issuedAt = claims != null ? JwtUtils.issuedAtMillis(claims) : null;
+        if (issuedAt == null
+                || revokedTokens.isRevoked(claims.getId())
+                || revokedUsers.isRevoked(claims.getSubject(), issuedAt)) {
+            return null;
+        }
+        UserPrincipal principal = jwtUtils.buildPrincipal(claims);
+        // Tokens issued before rut and rol were embedded still go through the cached lookup
+        return principal != null ? principal : tokenCache.resolve(jwt);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -2,47 +2,144 @@ package fullstack.backend.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
+    static final String CLAIM_RUT = "rut";
+    static final String CLAIM_ROL = "rol";
+    static final String CLAIM_TYPE = "typ";
+    // iat only has second precision; this copy in millis is what revocation checks compare against
+    static final String CLAIM_ISSUED_AT_MS = "iatMs";
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+    private static final String ROLE_PREFIX = "ROLE_";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expirationMs}")
     private int jwtExpirationMs;
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.refreshExpirationMs}")
+    private long jwtRefreshExpirationMs;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private Key key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateJwtToken((UserDetails) authentication.getPrincipal());
+    }
 
-        return Jwts.builder()
+    // Short-lived access token; the jti lets a single token be revoked before it expires
+    public String generateJwtToken(UserDetails userPrincipal) {
+        Date now = new Date();
+        JwtBuilder builder = Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_TYPE, TYPE_ACCESS);
+
+        // Signed rut and rol let the filter rebuild the principal without querying the user
+        if (userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(CLAIM_RUT, principal.getRut());
+            principal.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                    .findFirst()
+                    .ifPresent(authority -> builder.claim(CLAIM_ROL, authority.substring(ROLE_PREFIX.length())));
+        }
+
+        return builder
+                .setIssuedAt(now)
+                .claim(CLAIM_ISSUED_AT_MS, now.getTime())
+                .setExpiration(new Date(now.getTime() + jwtExpirationMs))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // Long-lived refresh token, only accepted by /api/auth/refresh and rotated on every use
+    public String generateRefreshToken(String username) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_TYPE, TYPE_REFRESH)
+                .setIssuedAt(now)
+                .claim(CLAIM_ISSUED_AT_MS, now.getTime())
+                .setExpiration(new Date(now.getTime() + jwtRefreshExpirationMs))
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // Principal built only from verified claims; null for tokens issued without rut and rol
+    public UserPrincipal buildPrincipal(Claims claims) {
+        Integer rut = claims.get(CLAIM_RUT, Integer.class);
+        String rol = claims.get(CLAIM_ROL, String.class);
+        if (rut == null || rol == null) {
+            return null;
+        }
+        return new UserPrincipal(claims.getSubject(), rut, "", true,
+                List.of(new SimpleGrantedAuthority(ROLE_PREFIX + rol)));
+    }
+
+    // Issue time in millis. Tokens from before iatMs fall back to iat, which can only reject more, never
+    // less; returns null when the token carries neither
+    public static Long issuedAtMillis(Claims claims) {
+        Long millis = claims.get(CLAIM_ISSUED_AT_MS, Long.class);
+        if (millis != null) {
+            return millis;
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : null;
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    // Verifies an access token; tokens issued before the typ claim existed count as access tokens
+    public Claims parseClaims(String authToken) {
+        Claims claims = verify(authToken);
+        if (claims == null || TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class))) {
+            return null;
+        }
+        return claims;
+    }
+
+    public Claims parseRefreshClaims(String refreshToken) {
+        Claims claims = verify(refreshToken);
+        if (claims == null || !TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class))) {
+            return null;
+        }
+        return claims;
+    }
+
+    // Verifies signature and expiry once; returns null for any invalid token
+    private Claims verify(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -51,8 +148,10 @@ public class JwtUtils {
             System.err.println("JWT token is unsupported: " + e.getMessage());
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
+        } catch (JwtException e) {
+            System.err.println("Invalid JWT signature: " + e.getMessage());
         }
 
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,144 @@
+package fullstack.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token-bucket rate limiting per route group and client. Runs after JwtAuthenticationFilter so
+// authenticated callers are keyed by RUT (or email) and anonymous ones by IP.
+//
+// Each bucket is one AtomicLong holding the GCRA "theoretical arrival time": a request advances
+// it by one emission interval and is allowed while it stays within capacity intervals of now.
+// That is an exact token bucket updated with a single CAS, so the request path never locks.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String GLOBAL_CLIENT = "*";
+
+    private final RateLimitProperties properties;
+    private final Cache<String, AtomicLong> buckets;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final MeterRegistry registry;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofMinutes(properties.getIdleMinutes()))
+                .build();
+        Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Client buckets currently tracked").register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (properties.isEnabled()) {
+            Map.Entry<String, RateLimitProperties.Route> route = matchRoute(request);
+            if (route != null) {
+                long waitNanos = acquire(route.getKey(), route.getValue(), clientKey(request));
+                if (waitNanos > 0) {
+                    reject(response, route.getKey(), waitNanos);
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Map.Entry<String, RateLimitProperties.Route> matchRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, RateLimitProperties.Route> entry : properties.getRoutes().entrySet()) {
+            RateLimitProperties.Route route = entry.getValue();
+            if (!route.getMethods().isEmpty()
+                    && route.getMethods().stream().noneMatch(request.getMethod()::equalsIgnoreCase)) {
+                continue;
+            }
+            for (String pattern : route.getPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getRut() != null) {
+            return "rut:" + principal.getRut();
+        }
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserDetails user) {
+            return "email:" + user.getUsername();
+        }
+        // Behind a proxy, server.forward-headers-strategy makes getRemoteAddr() the real client
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Returns 0 when the request may proceed, otherwise the nanoseconds until it would be allowed
+    private long acquire(String routeName, RateLimitProperties.Route route, String client) {
+        long now = System.nanoTime();
+        if (route.getCapacity() > 0 && route.getRefillPerSecond() > 0) {
+            long wait = tryConsume(routeName + '|' + client, route.getCapacity(), route.getRefillPerSecond(), now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        if (route.getGlobalCapacity() > 0 && route.getGlobalRefillPerSecond() > 0) {
+            return tryConsume(routeName + '|' + GLOBAL_CLIENT, route.getGlobalCapacity(),
+                    route.getGlobalRefillPerSecond(), now);
+        }
+        return 0;
+    }
+
+    private long tryConsume(String key, int capacity, double refillPerSecond, long now) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        long tolerance = interval * capacity;
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, String routeName, long waitNanos) {
+        rejections.computeIfAbsent(routeName, name -> Counter.builder("ratelimit.rejected")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("route", name)
+                .register(registry)).increment();
+
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    }
+}
@@ -0,0 +1,42 @@
+package fullstack.backend.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-route limits read from ratelimit.* in application.properties. Routes are tried in
+// declaration order and the first whose pattern (and method, if given) matches applies.
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked client buckets; idle buckets are dropped after idleMinutes
+    private long maxClients = 100_000;
+    private long idleMinutes = 10;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        // Ant-style path patterns, e.g. /api/v1/productos/**
+        private List<String> patterns = new ArrayList<>();
+        // Empty means any method
+        private List<String> methods = new ArrayList<>();
+
+        // Per client: burst size and sustained requests per second
+        private int capacity;
+        private double refillPerSecond;
+
+        // Optional bucket shared by every client of the route, to shed load as a whole
+        private int globalCapacity;
+        private double globalRefillPerSecond;
+    }
+}
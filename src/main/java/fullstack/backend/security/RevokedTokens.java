@@ -0,0 +1,150 @@
+package fullstack.backend.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revoked token ids (jti). The tokens_revocados table is the durable copy and the only record of
+// used refresh tokens: rotation is decided by its primary key alone. Revoked access tokens, which
+// live at most jwt.expirationMs, are also kept in memory. The request path asks a Bloom filter
+// first, so an unrevoked token costs a few hashes and no lock; only filter positives reach the
+// exact set. The table is loaded on startup and polled so revocations made on other nodes arrive
+// within jwt.revocation.syncMs.
+//
+// Expired ids are dropped from the filter by generations instead of rebuilding it: every
+// jwt.expirationMs the current filter becomes the previous one and the old previous is discarded.
+// An id put in the current filter survives at least one full period, which outlasts its token.
+@Component
+@DependsOn("entityManagerFactory")
+public class RevokedTokens {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tokens_revocados (jti, expira_en, revocado_en) VALUES (?, ?, ?)";
+    // Only rows that expire within one access token lifetime; refresh rows stay in the table
+    private static final String SELECT_SQL =
+            "SELECT jti, expira_en FROM tokens_revocados WHERE revocado_en >= ? AND expira_en > ? AND expira_en <= ?";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM tokens_revocados WHERE expira_en <= ?";
+
+    // Rows committed slightly out of order on other nodes are still picked up by the next poll
+    private static final long SYNC_OVERLAP_MS = 60_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.expirationMs}")
+    private long jwtExpirationMs;
+
+    @Value("${jwt.revocation.expectedEntries:100000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.falsePositiveRate:0.01}")
+    private double falsePositiveRate;
+
+    // jti -> expiry in epoch millis, access tokens only
+    private final ConcurrentHashMap<String, Long> exact = new ConcurrentHashMap<>();
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    // Held only for a put or a swap of references, never for a scan
+    private final Object filterLock = new Object();
+    private volatile long lastSyncMillis;
+    private volatile long lastRotationMillis;
+
+    @PostConstruct
+    void load() {
+        current = new BloomFilter(expectedEntries, falsePositiveRate);
+        previous = new BloomFilter(1, falsePositiveRate);
+        lastSyncMillis = 0;
+        lastRotationMillis = System.currentTimeMillis();
+        sync();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || (!current.mightContain(jti) && !previous.mightContain(jti))) {
+            return false;
+        }
+        return exact.containsKey(jti);
+    }
+
+    // Revokes an access token here and, through the table, on the other nodes
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return;
+        }
+        long expiresAtMillis = expiresAt.getTime();
+        if (exact.putIfAbsent(jti, expiresAtMillis) != null) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, jti, new Timestamp(expiresAtMillis), Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Another node revoked it first; it is still revoked here
+        } catch (RuntimeException e) {
+            exact.remove(jti);
+            throw e;
+        }
+        put(jti);
+    }
+
+    // Marks a refresh token as used. Returns false when it already was, here or on another node, so
+    // exactly one caller gets to rotate it. Nothing is kept in memory: refresh tokens are only checked
+    // on /refresh and /logout, where the insert itself is the check.
+    public boolean consume(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, jti, new Timestamp(expiresAt.getTime()), Timestamp.valueOf(LocalDateTime.now()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Picks up revocations from other nodes, drops expired ids and rotates the filter generations
+    @Scheduled(fixedDelayString = "${jwt.revocation.syncMs:30000}", initialDelayString = "${jwt.revocation.syncMs:30000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        Timestamp desde = new Timestamp(Math.max(0, lastSyncMillis - SYNC_OVERLAP_MS));
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            String jti = rs.getString("jti");
+            if (exact.putIfAbsent(jti, rs.getTimestamp("expira_en").getTime()) == null) {
+                put(jti);
+            }
+        }, desde, new Timestamp(now), new Timestamp(now + jwtExpirationMs));
+        lastSyncMillis = now;
+
+        jdbcTemplate.update(DELETE_EXPIRED_SQL, new Timestamp(now));
+        exact.values().removeIf(expiresAt -> expiresAt <= now);
+        if (now - lastRotationMillis >= jwtExpirationMs) {
+            rotate(now);
+        }
+    }
+
+    private void put(String jti) {
+        synchronized (filterLock) {
+            current.put(jti);
+        }
+    }
+
+    // The new filter is allocated outside the lock; under it only two references change, so a
+    // concurrent put() lands either in the old current (kept as previous) or in the new one
+    private void rotate(long now) {
+        BloomFilter fresh = new BloomFilter(Math.max(expectedEntries, exact.size() * 2), falsePositiveRate);
+        synchronized (filterLock) {
+            previous = current;
+            current = fresh;
+        }
+        lastRotationMillis = now;
+    }
+}
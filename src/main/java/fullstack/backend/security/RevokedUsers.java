@@ -0,0 +1,83 @@
+package fullstack.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+// Time of the last security-relevant change per user (role, active flag, password, email,
+// deletion or a reused refresh token). Tokens issued and principals loaded up to that instant are
+// rejected; both are compared in millis, so a token issued right after the change in the same second
+// is accepted. An entry only has to outlive the longest token, so it expires after the refresh
+// token lifetime. The usuarios_revocados table carries revocations to the other nodes, polled
+// like tokens_revocados in RevokedTokens.
+@Component
+@DependsOn("entityManagerFactory")
+public class RevokedUsers {
+
+    private static final String MERGE_SQL = "MERGE INTO usuarios_revocados u "
+            + "USING (SELECT CAST(? AS VARCHAR(255)) AS email, CAST(? AS TIMESTAMP) AS revocado_en, "
+            + "CAST(? AS TIMESTAMP) AS expira_en FROM dual) d ON (u.email = d.email) "
+            + "WHEN MATCHED THEN UPDATE SET revocado_en = d.revocado_en, expira_en = d.expira_en "
+            + "WHEN NOT MATCHED THEN INSERT (email, revocado_en, expira_en) VALUES (d.email, d.revocado_en, d.expira_en)";
+    private static final String SELECT_SQL =
+            "SELECT email, revocado_en FROM usuarios_revocados WHERE revocado_en >= ? AND expira_en > ?";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM usuarios_revocados WHERE expira_en <= ?";
+
+    // Rows committed slightly out of order on other nodes are still picked up by the next poll
+    private static final long SYNC_OVERLAP_MS = 60_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, Long> revokedAt;
+    private final long retentionMs;
+    private volatile long lastSyncMillis;
+
+    public RevokedUsers(@Value("${jwt.expirationMs}") long jwtExpirationMs,
+            @Value("${jwt.refreshExpirationMs}") long jwtRefreshExpirationMs) {
+        this.retentionMs = Math.max(jwtExpirationMs, jwtRefreshExpirationMs);
+        this.revokedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(retentionMs))
+                .build();
+    }
+
+    @PostConstruct
+    void load() {
+        lastSyncMillis = 0;
+        sync();
+    }
+
+    public void revoke(String username) {
+        long now = System.currentTimeMillis();
+        revokedAt.asMap().merge(username, now, Math::max);
+        jdbcTemplate.update(MERGE_SQL, username, new Timestamp(now), new Timestamp(now + retentionMs));
+    }
+
+    public boolean isRevoked(String username, long sinceMillis) {
+        Long at = revokedAt.getIfPresent(username);
+        return at != null && sinceMillis <= at;
+    }
+
+    // Picks up revocations made on other nodes and drops expired rows
+    @Scheduled(fixedDelayString = "${jwt.revocation.syncMs:30000}", initialDelayString = "${jwt.revocation.syncMs:30000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        Timestamp desde = new Timestamp(Math.max(0, lastSyncMillis - SYNC_OVERLAP_MS));
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            revokedAt.asMap().merge(rs.getString("email"), rs.getTimestamp("revocado_en").getTime(), Math::max);
+        }, desde, new Timestamp(now));
+        lastSyncMillis = now;
+
+        jdbcTemplate.update(DELETE_EXPIRED_SQL, new Timestamp(now));
+    }
+}
@@ -0,0 +1,112 @@
+package fullstack.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+// Verified tokens and their resolved UserDetails, keyed by the SHA-256 of the token so raw tokens
+// are never kept in memory. Each entry expires with its token. A repeated token skips signature
+// verification and the user lookup.
+@Component
+public class TokenCache {
+
+    private record Entry(String username, Claims claims, UserDetails userDetails, long expiresAtMillis,
+            long loadedAtMillis) {
+    }
+
+    private final Cache<String, Entry> tokens;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    // Entries loaded before a user's revocation are stale, even if a request that started
+    // before the change puts them back afterwards
+    @Autowired
+    private RevokedUsers revokedUsers;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
+    public TokenCache(@Value("${jwt.cache.maximumSize:10000}") long maximumSize) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long remaining = entry.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Returns null when the token is invalid, expired, revoked or its user no longer exists
+    public UserDetails resolve(String token) {
+        String key = hash(token);
+        Entry entry = tokens.getIfPresent(key);
+        if (entry != null && !isStale(entry)) {
+            return revokedTokens.isRevoked(entry.claims().getId()) ? null : entry.userDetails();
+        }
+
+        return load(key, jwtUtils.parseClaims(token));
+    }
+
+    private UserDetails load(String key, Claims claims) {
+        if (claims == null || claims.getExpiration() == null || revokedTokens.isRevoked(claims.getId())) {
+            return null;
+        }
+        // Tokens issued before the user's last revocation (e.g. a reused refresh token) are never cached
+        Long issuedAt = JwtUtils.issuedAtMillis(claims);
+        if (issuedAt == null || revokedUsers.isRevoked(claims.getSubject(), issuedAt)) {
+            return null;
+        }
+        long loadedAt = System.currentTimeMillis();
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        tokens.put(key, new Entry(claims.getSubject(), claims, userDetails,
+                claims.getExpiration().getTime(), loadedAt));
+        return userDetails;
+    }
+
+    private boolean isStale(Entry entry) {
+        return revokedUsers.isRevoked(entry.username(), entry.loadedAtMillis());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -5,7 +5,6 @@ import fullstack.backend.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -30,12 +29,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         List<GrantedAuthority> authorities = Collections
                 .singletonList(new SimpleGrantedAuthority("ROLE_" + usuario.getRol()));
 
-        return new User(usuario.getEmail(),
+        return new UserPrincipal(usuario.getEmail(),
+                usuario.getRut(),
                 usuario.getHashContrasena(),
                 usuario.getActivo(),
-                true,
-                true,
-                true,
                 authorities);
     }
 }
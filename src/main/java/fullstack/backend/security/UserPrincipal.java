@@ -0,0 +1,23 @@
+package fullstack.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// UserDetails that also carries the RUT, so neither login nor token-based requests
+// need to query the user again to learn it
+public class UserPrincipal extends User {
+
+    private final Integer rut;
+
+    public UserPrincipal(String email, Integer rut, String password, boolean enabled,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, enabled, true, true, true, authorities);
+        this.rut = rut;
+    }
+
+    public Integer getRut() {
+        return rut;
+    }
+}
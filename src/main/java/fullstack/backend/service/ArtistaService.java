@@ -1,8 +1,11 @@
 package fullstack.backend.service;
 
+import fullstack.backend.dto.Sugerencia;
 import fullstack.backend.model.Artista;
 import fullstack.backend.repository.ArtistaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +16,19 @@ public class ArtistaService {
     @Autowired
     private ArtistaRepository artistaRepository;
 
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private VersionesColeccion versiones;
+
+    private final IndiceNombres<Artista> indiceNombres = new IndiceNombres<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndiceNombres() {
+        artistaRepository.findAll().forEach(this::indexar);
+    }
+
     public List<Artista> getAllArtistas() {
         return artistaRepository.findAll();
     }
@@ -30,7 +46,10 @@ public class ArtistaService {
         if (artistaRepository.existsByNombreArtista(artista.getNombreArtista())) {
             throw new RuntimeException("Artista ya existe: " + artista.getNombreArtista());
         }
-        return artistaRepository.save(artista);
+        Artista guardado = artistaRepository.save(artista);
+        indexar(guardado);
+        versiones.incrementar(VersionesColeccion.ARTISTAS);
+        return guardado;
     }
 
     public Artista updateArtista(Long id, Artista artistaDetails) {
@@ -45,7 +64,11 @@ public class ArtistaService {
             }
 
             existingArtista.setNombreArtista(artistaDetails.getNombreArtista());
-            return artistaRepository.save(existingArtista);
+            Artista guardado = artistaRepository.save(existingArtista);
+            indexar(guardado);
+            versiones.incrementar(VersionesColeccion.ARTISTAS);
+            productoService.artistaActualizado(id);
+            return guardado;
         }
         throw new RuntimeException("Artista no encontrado con id: " + id);
     }
@@ -54,18 +77,34 @@ public class ArtistaService {
         Optional<Artista> artista = artistaRepository.findById(id);
         if (artista.isPresent()) {
             artistaRepository.delete(artista.get());
+            indiceNombres.eliminar(id);
+            versiones.incrementar(VersionesColeccion.ARTISTAS);
         } else {
             throw new RuntimeException("Artista no encontrado con id: " + id);
         }
     }
 
     public List<Artista> searchArtistasByNombre(String nombre) {
-        return artistaRepository.findAll().stream()
-                .filter(artista -> artista.getNombreArtista().toLowerCase().contains(nombre.toLowerCase()))
+        return indiceNombres.contienen(nombre);
+    }
+
+    public List<Sugerencia> sugerirArtistas(String prefijo, int limite) {
+        return indiceNombres.sugerir(prefijo, limite).stream()
+                .map(artista -> new Sugerencia(artista.getId(), artista.getNombreArtista()))
                 .toList();
     }
 
+    public String getEtagArtistas() {
+        return versiones.etag(VersionesColeccion.ARTISTAS);
+    }
+
     public boolean artistaExists(Long id) {
         return artistaRepository.existsById(id);
     }
+
+    // Se indexa una copia para que las sugerencias no compartan la entidad administrada
+    private void indexar(Artista artista) {
+        indiceNombres.registrar(artista.getId(), artista.getNombreArtista(),
+                new Artista(artista.getId(), artista.getNombreArtista(), artista.getCreadoEn()));
+    }
 }
@@ -0,0 +1,135 @@
+package fullstack.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Las calificaciones se acumulan en memoria por SKU y una tarea periódica las aplica en un solo
+// batch JDBC. Un producto muy calificado recibe un UPDATE por intervalo en vez de uno por voto.
+// El voto de cada usuario se guarda en su propia fila de calificaciones_usuario, que no es un punto
+// caliente, y al acumulador solo llega lo que ese voto cambia en la suma y el conteo.
+@Service
+public class CalificacionService {
+
+    // El promedio se recalcula en la base con los valores vigentes de la fila, sin leerla antes
+    private static final String UPDATE_SQL = "UPDATE productos SET calificacion_promedio = "
+            + "(COALESCE(calificacion_promedio, 0) * COALESCE(conteo_calificaciones, 0) + ?) "
+            + "/ (COALESCE(conteo_calificaciones, 0) + ?), "
+            + "conteo_calificaciones = COALESCE(conteo_calificaciones, 0) + ?, actualizado_en = ? WHERE sku = ?";
+
+    private static final String VOTO_SQL =
+            "SELECT puntaje FROM calificaciones_usuario WHERE rut_usuario = ? AND sku = ? FOR UPDATE";
+    private static final String INSERTAR_VOTO_SQL =
+            "INSERT INTO calificaciones_usuario (rut_usuario, sku, puntaje, actualizado_en) VALUES (?, ?, ?, ?)";
+    private static final String CAMBIAR_VOTO_SQL =
+            "UPDATE calificaciones_usuario SET puntaje = ?, actualizado_en = ? WHERE rut_usuario = ? AND sku = ?";
+
+    // Cada voto suma (puntaje << 32) + conteo: los 32 bits altos acumulan puntajes y los bajos el conteo,
+    // de modo que un único add mantiene ambos valores consistentes entre sí. Un voto nuevo aporta
+    // conteo 1; uno que cambia aporta 0 y una diferencia de puntaje que puede ser negativa.
+    private static final int BITS_CONTEO = 32;
+    private static final long MASCARA_CONTEO = 0xFFFFFFFFL;
+
+    // El LongAdder solo crece; volcado es el total ya escrito en la base y solo lo toca volcar()
+    private static final class Acumulador {
+        private final LongAdder total = new LongAdder();
+        private long volcado;
+    }
+
+    private record Pendiente(String sku, Acumulador acumulador, long total, long suma, long conteo) {
+    }
+
+    private final Map<String, Acumulador> acumuladores = new ConcurrentHashMap<>();
+
+    @Value("${catalogo.calificaciones.tamanoLote:500}")
+    private int tamanoLote;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductoService productoService;
+
+    public void calificar(String sku, Integer rutUsuario, int puntaje) {
+        long aporte;
+        try {
+            aporte = registrarVoto(sku, rutUsuario, puntaje);
+        } catch (DuplicateKeyException e) {
+            // Dos primeros votos simultáneos del mismo usuario: al repetir ya existe la fila y se reemplaza
+            aporte = registrarVoto(sku, rutUsuario, puntaje);
+        }
+        if (aporte != 0) {
+            acumuladores.computeIfAbsent(sku, k -> new Acumulador()).total.add(aporte);
+        }
+    }
+
+    // Guarda el voto del usuario y retorna lo que cambia en el acumulador; 0 si repite el mismo puntaje
+    private long registrarVoto(String sku, Integer rutUsuario, int puntaje) {
+        Long aporte = new TransactionTemplate(transactionManager).execute(estado -> {
+            Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+            List<Integer> anterior = jdbcTemplate.queryForList(VOTO_SQL, Integer.class, rutUsuario, sku);
+            if (anterior.isEmpty()) {
+                jdbcTemplate.update(INSERTAR_VOTO_SQL, rutUsuario, sku, puntaje, ahora);
+                return ((long) puntaje << BITS_CONTEO) + 1;
+            }
+            if (anterior.get(0) == puntaje) {
+                return 0L;
+            }
+            jdbcTemplate.update(CAMBIAR_VOTO_SQL, puntaje, ahora, rutUsuario, sku);
+            return (long) (puntaje - anterior.get(0)) << BITS_CONTEO;
+        });
+        return aporte != null ? aporte : 0;
+    }
+
+    // Si el batch falla no se avanza volcado y la diferencia se reintenta en el siguiente intervalo
+    @Scheduled(fixedDelayString = "${catalogo.calificaciones.intervaloMs:5000}")
+    @PreDestroy
+    public synchronized void volcar() {
+        List<Pendiente> pendientes = new ArrayList<>();
+        for (Map.Entry<String, Acumulador> entrada : acumuladores.entrySet()) {
+            Acumulador acumulador = entrada.getValue();
+            long total = acumulador.total.sum();
+            long diferencia = total - acumulador.volcado;
+            if (diferencia != 0) {
+                pendientes.add(new Pendiente(entrada.getKey(), acumulador, total,
+                        diferencia >> BITS_CONTEO, diferencia & MASCARA_CONTEO));
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        // Orden fijo de filas para que dos volcados nunca se bloqueen en orden inverso
+        pendientes.sort(Comparator.comparing(Pendiente::sku));
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                jdbcTemplate.batchUpdate(UPDATE_SQL, pendientes, tamanoLote, (ps, pendiente) -> {
+                    ps.setLong(1, pendiente.suma());
+                    ps.setLong(2, pendiente.conteo());
+                    ps.setLong(3, pendiente.conteo());
+                    ps.setTimestamp(4, ahora);
+                    ps.setString(5, pendiente.sku());
+                }));
+
+        pendientes.forEach(pendiente -> pendiente.acumulador().volcado = pendiente.total());
+        productoService.invalidarProductos(pendientes.stream().map(Pendiente::sku).toList());
+    }
+}
@@ -0,0 +1,119 @@
+package fullstack.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+// Purga de carritos abandonados. Cada ejecución borra por lotes acotados con DELETE por conjunto,
+// usa una sola conexión a la vez y pausa entre lotes para no competir con el tráfico de la API.
+@Service
+public class CarritoPurgaService {
+
+    // Los ids de cada lote entran en una lista IN, que Oracle limita a 1000 elementos
+    private static final String SELECCIONAR_SQL = "SELECT id FROM carrito WHERE actualizado_en < ? "
+            + "ORDER BY actualizado_en FETCH FIRST ? ROWS ONLY";
+
+    @Value("${carrito.purga.diasInactividad:30}")
+    private int diasInactividad;
+
+    @Value("${carrito.purga.tamanoLote:500}")
+    private int tamanoLote;
+
+    @Value("${carrito.purga.lotesPorEjecucion:20}")
+    private int lotesPorEjecucion;
+
+    @Value("${carrito.purga.pausaMs:200}")
+    private long pausaMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Counter carritosPurgados;
+    private final Counter itemsPurgados;
+    private final Timer duracion;
+
+    public CarritoPurgaService(MeterRegistry registry) {
+        this.carritosPurgados = Counter.builder("carritos.purgados")
+                .description("Carritos inactivos eliminados").register(registry);
+        this.itemsPurgados = Counter.builder("carritos.items.purgados")
+                .description("Items eliminados junto con carritos inactivos").register(registry);
+        this.duracion = Timer.builder("carritos.purga.duracion")
+                .description("Tiempo de cada ejecución de la purga, pausas incluidas").register(registry);
+    }
+
+    // Los carritos creados antes de existir actualizado_en parten con la fecha de arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void marcarCarritosSinFecha() {
+        jdbcTemplate.update("UPDATE carrito SET actualizado_en = ? WHERE actualizado_en IS NULL",
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${carrito.purga.intervaloMs:3600000}",
+            initialDelayString = "${carrito.purga.retrasoInicialMs:300000}")
+    public void purgar() {
+        duracion.record(this::purgarLotes);
+    }
+
+    private void purgarLotes() {
+        Timestamp umbral = Timestamp.valueOf(LocalDateTime.now().minusDays(diasInactividad));
+        int limite = Math.min(tamanoLote, 1000);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        for (int lote = 0; lote < lotesPorEjecucion; lote++) {
+            List<Integer> ids = jdbcTemplate.queryForList(SELECCIONAR_SQL, Integer.class, umbral, limite);
+            if (ids.isEmpty()) {
+                return;
+            }
+            int[] borrados = transaccion.execute(estado -> borrarLote(ids, umbral));
+            carritosPurgados.increment(borrados[0]);
+            itemsPurgados.increment(borrados[1]);
+            if (ids.size() < limite) {
+                return;
+            }
+            try {
+                Thread.sleep(pausaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Se bloquean y revalidan los carritos antes de borrar: uno que recibió actividad desde la
+    // selección queda fuera del lote. Retorna {carritos, items} borrados.
+    private int[] borrarLote(List<Integer> ids, Timestamp umbral) {
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametros = new Object[ids.size() + 1];
+        for (int i = 0; i < ids.size(); i++) {
+            parametros[i] = ids.get(i);
+        }
+        parametros[ids.size()] = umbral;
+        List<Integer> vigentes = jdbcTemplate.queryForList("SELECT id FROM carrito WHERE id IN (" + marcadores
+                + ") AND actualizado_en < ? FOR UPDATE", Integer.class, parametros);
+        if (vigentes.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+
+        String enLista = String.join(", ", Collections.nCopies(vigentes.size(), "?"));
+        Object[] idsVigentes = vigentes.toArray();
+        int items = jdbcTemplate.update("DELETE FROM items_carrito WHERE id_carrito IN (" + enLista + ")", idsVigentes);
+        int carritos = jdbcTemplate.update("DELETE FROM carrito WHERE id IN (" + enLista + ")", idsVigentes);
+        return new int[] { carritos, items };
+    }
+}
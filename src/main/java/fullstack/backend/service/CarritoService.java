@@ -1,76 +1,248 @@
 package fullstack.backend.service;
 
+import fullstack.backend.dto.OperacionCarrito;
 import fullstack.backend.model.ItemCarrito;
 import fullstack.backend.model.Usuario;
-import fullstack.backend.repository.UsuarioRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import fullstack.backend.model.Carrito;
 import fullstack.backend.repository.CarritoRepository;
 import fullstack.backend.repository.ItemCarritoRepository;
+import fullstack.backend.repository.UsuarioRepository;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class CarritoService {
 
+    // Suma la cantidad si el SKU ya está en el carrito o inserta la fila, en una sola sentencia.
+    // Los CAST tipan los parámetros de la fila fuente, que de otro modo no tienen tipo en el MERGE.
+    private static final String MERGE_ORIGEN = "MERGE INTO items_carrito i "
+            + "USING (SELECT CAST(? AS INTEGER) AS id_carrito, CAST(? AS VARCHAR(255)) AS sku, "
+            + "CAST(? AS INTEGER) AS cantidad FROM dual) d "
+            + "ON (i.id_carrito = d.id_carrito AND i.sku = d.sku) ";
+
+    private static final String MERGE_INSERTAR =
+            "WHEN NOT MATCHED THEN INSERT (id_carrito, sku, cantidad) VALUES (d.id_carrito, d.sku, d.cantidad)";
+
+    private static final String MERGE_ITEM_SQL = MERGE_ORIGEN
+            + "WHEN MATCHED THEN UPDATE SET cantidad = i.cantidad + d.cantidad " + MERGE_INSERTAR;
+
+    private static final String FIJAR_ITEM_SQL = MERGE_ORIGEN
+            + "WHEN MATCHED THEN UPDATE SET cantidad = d.cantidad " + MERGE_INSERTAR;
+
+    // INSERT simple y no MERGE: así el driver retorna el id generado y no hay que volver a leerlo
+    private static final String INSERTAR_CARRITO_SQL = "INSERT INTO carrito (usuario_rut, actualizado_en) VALUES (?, ?)";
+
+    // Marca de actividad para la purga de carritos. Solo escribe si la marca tiene más de un minuto,
+    // así una ráfaga de cambios en el mismo carrito no reescribe su fila en cada petición.
+    private static final String TOCAR_CARRITO_SQL = "UPDATE carrito SET actualizado_en = ? "
+            + "WHERE id = ? AND (actualizado_en IS NULL OR actualizado_en < ?)";
+
+    private static final String BORRAR_ITEM_SQL = "DELETE FROM items_carrito WHERE id_carrito = ? AND sku = ?";
+
+    private static final int OPERACIONES_MAXIMAS = 1000;
+
+    // Resultado neto de todas las operaciones de un SKU: una suma pendiente o una cantidad final
+    private record Neto(String sku, boolean fija, int cantidad) {
+    }
+
     @Autowired
     private CarritoRepository carritoRepository;
 
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private ItemCarritoRepository itemCarritoRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     public Carrito crearUObtenerCarrito(Integer rutUsuario) {
-        Optional<Usuario> usuario = usuarioRepository.findByRut(rutUsuario);
-        if (usuario.isPresent()) {
-            return carritoRepository.findByUsuario(usuario.get())
-                    .orElseGet(() -> {
-                        Carrito carrito = new Carrito();
-                        carrito.setUsuario(usuario.get());
-                        return carritoRepository.save(carrito);
-                    });
-        }
-        return null;
+        return obtenerCarritoPorRut(rutUsuario);
     }
 
-    @Transactional
+    // Un carrito existente cuesta una consulta. En la primera visita se lee el usuario, que va en la
+    // respuesta, y el INSERT retorna el id del carrito nuevo; no se vuelve a leer lo recién creado.
     public Carrito obtenerCarritoPorRut(Integer rutUsuario) {
-        Optional<Usuario> usuario = usuarioRepository.findByRut(rutUsuario);
-        if (usuario.isPresent()) {
-            return carritoRepository.findByUsuario(usuario.get())
-                    .orElse(crearUObtenerCarrito(rutUsuario));
+        Optional<Carrito> carrito = carritoRepository.findConItemsByRut(rutUsuario);
+        if (carrito.isPresent()) {
+            return carrito.get();
+        }
+        Usuario usuario = usuarioRepository.findById(rutUsuario)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado con rut: " + rutUsuario));
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer id = crearCarritoSiNoExiste(rutUsuario, ahora);
+        if (id == null) {
+            // Lo creó otra petición concurrente, que pudo alcanzar a agregarle items
+            return carritoRepository.findConItemsByRut(rutUsuario)
+                    .orElseThrow(() -> new RuntimeException("Carrito no encontrado para el rut: " + rutUsuario));
+        }
+        return new Carrito(id, usuario, new ArrayList<>(), ahora);
+    }
+
+    // Consulta del id y, solo en la primera visita, el INSERT que lo retorna
+    private Integer obtenerIdCarrito(Integer rutUsuario) {
+        Optional<Integer> id = carritoRepository.findIdByRut(rutUsuario);
+        if (id.isPresent()) {
+            return id.get();
         }
-        return null;
+        Integer creado = crearCarritoSiNoExiste(rutUsuario, LocalDateTime.now());
+        if (creado != null) {
+            return creado;
+        }
+        return carritoRepository.findIdByRut(rutUsuario)
+                .orElseThrow(() -> new RuntimeException("Carrito no encontrado para el rut: " + rutUsuario));
+    }
+
+    // Inserta el carrito y retorna su id generado. Si otra petición lo crea al mismo tiempo, la
+    // restricción única sobre usuario_rut rechaza el segundo insert y se retorna null.
+    private Integer crearCarritoSiNoExiste(Integer rutUsuario, LocalDateTime ahora) {
+        KeyHolder id = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(conexion -> {
+                PreparedStatement ps = conexion.prepareStatement(INSERTAR_CARRITO_SQL, new String[]{"id"});
+                ps.setInt(1, rutUsuario);
+                ps.setTimestamp(2, Timestamp.valueOf(ahora));
+                return ps;
+            }, id);
+        } catch (DuplicateKeyException e) {
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Usuario no encontrado con rut: " + rutUsuario);
+        }
+        return id.getKey().intValue();
     }
 
     public void borrarCarrito(Integer id) {
         carritoRepository.deleteById(id);
     }
 
-    @Transactional
-    public Carrito agregarItemCarrito(Integer rutUsuario, String sku, Integer cantidad) {
-        Carrito carrito = crearUObtenerCarrito(rutUsuario);
+    // No carga el carrito ni sus items: solo resuelve el id del carrito y ejecuta el MERGE
+    public void agregarItemCarrito(Integer rutUsuario, String sku, Integer cantidad) {
+        Integer carritoId = obtenerIdCarrito(rutUsuario);
+        try {
+            jdbcTemplate.update(MERGE_ITEM_SQL, carritoId, sku, cantidad);
+        } catch (DuplicateKeyException e) {
+            // Dos MERGE simultáneos del mismo SKU nuevo: ambos intentan insertar y uno choca con la
+            // restricción única. Al repetirlo la fila ya existe y se toma la rama de UPDATE.
+            jdbcTemplate.update(MERGE_ITEM_SQL, carritoId, sku, cantidad);
+        }
+        tocarCarrito(carritoId);
+    }
+
+    private void tocarCarrito(Integer carritoId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        jdbcTemplate.update(TOCAR_CARRITO_SQL, Timestamp.valueOf(ahora), carritoId,
+                Timestamp.valueOf(ahora.minusMinutes(1)));
+    }
 
-        Optional<ItemCarrito> itemsExistente = carrito.getItemsCarrito().stream()
-                .filter(i -> i.getSku().equals(sku))
-                .findFirst();
-
-        if (itemsExistente.isPresent()) {
-            itemsExistente.get().setCantidad(itemsExistente.get().getCantidad() + cantidad);
-        } else {
-            ItemCarrito itemCarrito = new ItemCarrito();
-            itemCarrito.setSku(sku);
-            itemCarrito.setCantidad(cantidad);
-            itemCarrito.setCarrito(carrito);
-            carrito.getItemsCarrito().add(itemCarrito);
+    // Aplica una lista de cambios en una transacción. Primero se reducen a un resultado neto por SKU,
+    // en el orden recibido, y luego se ejecutan como a lo sumo tres batches JDBC ordenados por SKU.
+    public void aplicarOperaciones(Integer rutUsuario, List<OperacionCarrito> operaciones) {
+        if (operaciones.size() > OPERACIONES_MAXIMAS) {
+            throw new IllegalArgumentException("Se permiten hasta " + OPERACIONES_MAXIMAS + " operaciones");
+        }
+        Map<String, Neto> netos = new TreeMap<>();
+        for (OperacionCarrito operacion : operaciones) {
+            netos.put(operacion.sku(), combinar(netos.get(operacion.sku()), operacion));
         }
 
-        return carritoRepository.save(carrito);
+        List<Neto> sumas = new ArrayList<>();
+        List<Neto> fijas = new ArrayList<>();
+        List<Neto> borrados = new ArrayList<>();
+        for (Neto neto : netos.values()) {
+            if (!neto.fija()) {
+                sumas.add(neto);
+            } else if (neto.cantidad() > 0) {
+                fijas.add(neto);
+            } else {
+                borrados.add(neto);
+            }
+        }
+
+        Integer carritoId = obtenerIdCarrito(rutUsuario);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        try {
+            transaccion.executeWithoutResult(estado -> ejecutarNetos(carritoId, sumas, fijas, borrados));
+        } catch (DuplicateKeyException e) {
+            // Mismo caso que en agregarItemCarrito: otro MERGE insertó el SKU primero
+            transaccion.executeWithoutResult(estado -> ejecutarNetos(carritoId, sumas, fijas, borrados));
+        }
+    }
+
+    private static Neto combinar(Neto actual, OperacionCarrito operacion) {
+        if (operacion.tipo() == null || operacion.sku() == null) {
+            throw new IllegalArgumentException("Operación sin tipo o SKU");
+        }
+        switch (operacion.tipo()) {
+            case AGREGAR -> {
+                if (operacion.cantidad() == null || operacion.cantidad() < 1) {
+                    throw new IllegalArgumentException("Cantidad inválida para " + operacion.sku());
+                }
+                if (actual == null) {
+                    return new Neto(operacion.sku(), false, operacion.cantidad());
+                }
+                try {
+                    return new Neto(operacion.sku(), actual.fija(), Math.addExact(actual.cantidad(), operacion.cantidad()));
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("Cantidad fuera de rango para " + operacion.sku());
+                }
+            }
+            case FIJAR -> {
+                if (operacion.cantidad() == null || operacion.cantidad() < 0) {
+                    throw new IllegalArgumentException("Cantidad inválida para " + operacion.sku());
+                }
+                return new Neto(operacion.sku(), true, operacion.cantidad());
+            }
+            default -> {
+                return new Neto(operacion.sku(), true, 0);
+            }
+        }
+    }
+
+    private void ejecutarNetos(Integer carritoId, List<Neto> sumas, List<Neto> fijas, List<Neto> borrados) {
+        if (!borrados.isEmpty()) {
+            jdbcTemplate.batchUpdate(BORRAR_ITEM_SQL, borrados, borrados.size(), (ps, neto) -> {
+                ps.setInt(1, carritoId);
+                ps.setString(2, neto.sku());
+            });
+        }
+        if (!fijas.isEmpty()) {
+            jdbcTemplate.batchUpdate(FIJAR_ITEM_SQL, fijas, fijas.size(), (ps, neto) -> {
+                ps.setInt(1, carritoId);
+                ps.setString(2, neto.sku());
+                ps.setInt(3, neto.cantidad());
+            });
+        }
+        if (!sumas.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_ITEM_SQL, sumas, sumas.size(), (ps, neto) -> {
+                ps.setInt(1, carritoId);
+                ps.setString(2, neto.sku());
+                ps.setInt(3, neto.cantidad());
+            });
+        }
+        tocarCarrito(carritoId);
     }
 
     @Transactional
@@ -83,6 +255,7 @@ public class CarritoService {
                 .orElseThrow(() -> new RuntimeException("No existe el item con el id: " + itemId));
 
         itemsExistente.setCantidad(nuevaCantidad);
+        carrito.setActualizadoEn(LocalDateTime.now());
 
         return carritoRepository.save(carrito);
     }
@@ -92,6 +265,7 @@ public class CarritoService {
         Carrito carrito = obtenerCarritoPorRut(rutUsuario);
 
         carrito.getItemsCarrito().removeIf(i -> i.getId().equals(idItemCarrito));
+        carrito.setActualizadoEn(LocalDateTime.now());
 
         return carritoRepository.save(carrito);
     }
@@ -100,6 +274,7 @@ public class CarritoService {
     public Carrito vaciarCarrito(Integer rutUsuario) {
         Carrito carrito = obtenerCarritoPorRut(rutUsuario);
         carrito.getItemsCarrito().clear();
+        carrito.setActualizadoEn(LocalDateTime.now());
         return carritoRepository.save(carrito);
     }
 
@@ -0,0 +1,72 @@
+package fullstack.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import fullstack.backend.model.Producto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Exporta el catálogo completo como NDJSON leyendo con un cursor de solo avance. El contexto de
+// persistencia se vacía cada cierto número de filas, así la memoria no crece con el tamaño de la tabla.
+@Service
+public class ExportacionProductoService {
+
+    private static final byte[] SALTO_LINEA = { '\n' };
+
+    @Value("${catalogo.exportacion.fetchSize:500}")
+    private int fetchSize;
+
+    @Value("${catalogo.exportacion.limpiarCada:500}")
+    private int limpiarCada;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void exportar(OutputStream salida) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        ObjectWriter writer = objectMapper.writerFor(Producto.class);
+
+        transaccion.executeWithoutResult(estado -> {
+            try (Stream<Producto> productos = entityManager
+                    .createQuery("select p from Producto p join fetch p.artista join fetch p.sello order by p.sku",
+                            Producto.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                Iterator<Producto> iterador = productos.iterator();
+                int escritas = 0;
+                while (iterador.hasNext()) {
+                    // writeValueAsBytes evita que el writer cierre la salida tras cada fila
+                    salida.write(writer.writeValueAsBytes(iterador.next()));
+                    salida.write(SALTO_LINEA);
+                    if (++escritas % limpiarCada == 0) {
+                        entityManager.clear();
+                        salida.flush();
+                    }
+                }
+                salida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
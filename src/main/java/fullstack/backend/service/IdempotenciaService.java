@@ -0,0 +1,132 @@
+package fullstack.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Respuestas de mutaciones indexadas por la cabecera Idempotency-Key. Un reintento con la misma clave
+// recibe la respuesta guardada sin volver a ejecutar la operación. Si el original sigue en curso, el
+// reintento espera su resultado hasta idempotencia.esperaMs y, si no llega, recibe 409 con Retry-After.
+// Solo se guardan respuestas 2xx: tras un error el cliente puede reintentar con la misma clave. Cada entrada guarda un hash del cuerpo; reutilizar la clave con otro
+// cuerpo es un error del cliente y se responde 422 en vez de devolver una respuesta que no corresponde.
+@Service
+public class IdempotenciaService {
+
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    private static final int LARGO_MAXIMO_CLAVE = 255;
+
+    private record Entrada(String huella, CompletableFuture<ResponseEntity<?>> respuesta) {
+    }
+
+    private final Cache<String, Entrada> respuestas;
+    private final ObjectMapper objectMapper;
+    // Cuánto espera un reintento a que termine el original antes de responder 409 con Retry-After
+    private final long esperaMs;
+
+    public IdempotenciaService(@Value("${idempotencia.maximoClaves:100000}") long maximoClaves,
+            @Value("${idempotencia.ttlMinutos:60}") long ttlMinutos,
+            @Value("${idempotencia.esperaMs:2000}") long esperaMs, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.esperaMs = esperaMs;
+        this.respuestas = Caffeine.newBuilder()
+                .maximumSize(maximoClaves)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    // El alcance (ruta y usuario) evita que dos clientes que repiten la misma clave se pisen.
+    // cuerpo es el cuerpo de la petición ya deserializado, o null si no tiene.
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> ejecutar(String clave, String alcance, Object cuerpo, Supplier<ResponseEntity<T>> operacion) {
+        if (clave == null || clave.isBlank()) {
+            return operacion.get();
+        }
+        if (clave.length() > LARGO_MAXIMO_CLAVE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        String llave = alcance + "|" + clave;
+        String huella = huella(cuerpo);
+        Entrada propia = new Entrada(huella, new CompletableFuture<>());
+        Entrada existente;
+        while ((existente = respuestas.asMap().putIfAbsent(llave, propia)) != null) {
+            if (!existente.huella().equals(huella)) {
+                return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+            ResponseEntity<?> guardada;
+            try {
+                guardada = existente.respuesta().get(esperaMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // El original sigue en curso: no se retiene un hilo del servidor esperándolo
+                return enCurso();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return enCurso();
+            } catch (ExecutionException | CancellationException e) {
+                guardada = null;
+            }
+            if (guardada != null && guardada.getStatusCode().is2xxSuccessful()) {
+                return (ResponseEntity<T>) repetida(guardada);
+            }
+            // El original falló y no quedó guardado: este reintento ejecuta la operación de nuevo
+            respuestas.asMap().remove(llave, existente);
+        }
+
+        ResponseEntity<T> respuesta;
+        try {
+            respuesta = operacion.get();
+        } catch (RuntimeException e) {
+            respuestas.asMap().remove(llave, propia);
+            propia.respuesta().completeExceptionally(e);
+            throw e;
+        }
+        if (!respuesta.getStatusCode().is2xxSuccessful()) {
+            respuestas.asMap().remove(llave, propia);
+        }
+        propia.respuesta().complete(respuesta);
+        return respuesta;
+    }
+
+    private <T> ResponseEntity<T> enCurso() {
+        long segundos = Math.max(1, (esperaMs + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, String.valueOf(segundos)).build();
+    }
+
+    private String huella(Object cuerpo) {
+        if (cuerpo == null) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(cuerpo)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular el hash del cuerpo", e);
+        }
+    }
+
+    private static ResponseEntity<?> repetida(ResponseEntity<?> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(CABECERA_REPETIDA, "true")
+                .body(original.getBody());
+    }
+}
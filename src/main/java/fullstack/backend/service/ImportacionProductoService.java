@@ -0,0 +1,333 @@
+package fullstack.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fullstack.backend.dto.ProductoImportacion;
+import fullstack.backend.dto.ResultadoImportacion;
+import fullstack.backend.dto.ResultadoImportacion.ErrorFila;
+import fullstack.backend.model.Artista;
+import fullstack.backend.model.Sello;
+import fullstack.backend.repository.ArtistaRepository;
+import fullstack.backend.repository.ProductoRepository;
+import fullstack.backend.repository.SelloRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Importación masiva de productos desde NDJSON o CSV. El archivo se lee como flujo y se procesa por
+// lotes: artistas, sellos y SKU existentes se resuelven con una consulta IN por lote, y las filas se
+// escriben con batches JDBC dentro de una transacción por lote.
+@Service
+public class ImportacionProductoService {
+
+    private static final String INSERT_SQL = "INSERT INTO productos (sku, titulo, id_artista, id_sello, "
+            + "nombre_formato, tipo_formato, url_imagen, anio_lanzamiento, descripcion, precio, cantidad_stock, "
+            + "esta_disponible, calificacion_promedio, conteo_calificaciones, creado_en, actualizado_en) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?)";
+
+    // Igual que updateProducto, no toca cantidad_stock ni esta_disponible: pisarlos desharía los descuentos
+    // de reservas y checkouts concurrentes. El stock de un SKU existente cambia solo con ajustarStock.
+    private static final String UPDATE_SQL = "UPDATE productos SET titulo = ?, id_artista = ?, id_sello = ?, "
+            + "nombre_formato = ?, tipo_formato = ?, url_imagen = ?, anio_lanzamiento = ?, descripcion = ?, "
+            + "precio = ?, actualizado_en = ? WHERE sku = ?";
+
+    // Oracle no admite más de 1000 elementos en una lista IN
+    private static final int TAMANO_LOTE_MAXIMO = 1000;
+
+    private record Fila(long linea, ProductoImportacion datos, Long idArtista, Long idSello) {
+    }
+
+    @Value("${catalogo.importacion.tamanoLote:500}")
+    private int tamanoLote;
+
+    @Value("${catalogo.importacion.maximoErrores:1000}")
+    private int maximoErrores;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArtistaRepository artistaRepository;
+
+    @Autowired
+    private SelloRepository selloRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    public ResultadoImportacion importar(InputStream entrada, boolean esCsv, boolean actualizarExistentes)
+            throws IOException {
+        int lote = Math.max(1, Math.min(tamanoLote, TAMANO_LOTE_MAXIMO));
+        Contadores contadores = new Contadores(maximoErrores);
+        List<Fila> pendientes = new ArrayList<>(lote);
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            List<String> cabecera = null;
+            long numeroLinea = 0;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                if (esCsv && cabecera == null) {
+                    cabecera = separarCsv(linea);
+                    continue;
+                }
+                contadores.procesadas++;
+                try {
+                    ProductoImportacion datos = esCsv ? leerCsv(cabecera, linea) : leerJson(linea);
+                    String error = validar(datos);
+                    if (error != null) {
+                        contadores.error(numeroLinea, datos.sku(), error);
+                        continue;
+                    }
+                    pendientes.add(new Fila(numeroLinea, datos, null, null));
+                } catch (IOException | IllegalArgumentException e) {
+                    contadores.error(numeroLinea, null, "Fila con formato inválido: " + e.getMessage());
+                    continue;
+                }
+                if (pendientes.size() >= lote) {
+                    procesarLote(pendientes, actualizarExistentes, contadores);
+                    pendientes.clear();
+                }
+            }
+        }
+        if (!pendientes.isEmpty()) {
+            procesarLote(pendientes, actualizarExistentes, contadores);
+        }
+        return new ResultadoImportacion(contadores.procesadas, contadores.insertadas, contadores.actualizadas,
+                contadores.totalErrores, contadores.errores);
+    }
+
+    private void procesarLote(List<Fila> filas, boolean actualizarExistentes, Contadores contadores) {
+        // Un SKU repetido dentro del lote se reporta; se conserva la primera aparición
+        Map<String, Fila> porSku = new LinkedHashMap<>();
+        for (Fila fila : filas) {
+            if (porSku.putIfAbsent(fila.datos().sku(), fila) != null) {
+                contadores.error(fila.linea(), fila.datos().sku(), "SKU repetido en el archivo");
+            }
+        }
+
+        Set<String> nombresArtista = porSku.values().stream().map(f -> f.datos().artista()).collect(Collectors.toSet());
+        Set<String> nombresSello = porSku.values().stream().map(f -> f.datos().sello()).collect(Collectors.toSet());
+        Map<String, Long> artistas = artistaRepository.findByNombreArtistaIn(nombresArtista).stream()
+                .collect(Collectors.toMap(Artista::getNombreArtista, Artista::getId));
+        Map<String, Long> sellos = selloRepository.findByNombreSelloIn(nombresSello).stream()
+                .collect(Collectors.toMap(Sello::getNombreSello, Sello::getId));
+
+        List<Fila> resueltas = new ArrayList<>(porSku.size());
+        for (Fila fila : porSku.values()) {
+            Long idArtista = artistas.get(fila.datos().artista());
+            Long idSello = sellos.get(fila.datos().sello());
+            if (idArtista == null) {
+                contadores.error(fila.linea(), fila.datos().sku(), "Artista no encontrado: " + fila.datos().artista());
+            } else if (idSello == null) {
+                contadores.error(fila.linea(), fila.datos().sku(), "Sello no encontrado: " + fila.datos().sello());
+            } else {
+                resueltas.add(new Fila(fila.linea(), fila.datos(), idArtista, idSello));
+            }
+        }
+        if (resueltas.isEmpty()) {
+            return;
+        }
+
+        List<Fila> inserts = new ArrayList<>();
+        List<Fila> updates = new ArrayList<>();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+                Set<String> existentes = new HashSet<>(productoRepository.findSkusExistentes(
+                        resueltas.stream().map(f -> f.datos().sku()).toList()));
+                for (Fila fila : resueltas) {
+                    if (!existentes.contains(fila.datos().sku())) {
+                        inserts.add(fila);
+                    } else if (actualizarExistentes) {
+                        updates.add(fila);
+                    }
+                }
+                Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(),
+                            (ps, fila) -> asignarInsert(ps, fila, ahora));
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(),
+                            (ps, fila) -> asignarUpdate(ps, fila, ahora));
+                }
+            });
+        } catch (RuntimeException e) {
+            // El lote completo se revierte; sus filas se informan con la causa
+            for (Fila fila : resueltas) {
+                contadores.error(fila.linea(), fila.datos().sku(), "Lote revertido: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (!actualizarExistentes) {
+            Set<String> escritos = new HashSet<>();
+            inserts.forEach(f -> escritos.add(f.datos().sku()));
+            for (Fila fila : resueltas) {
+                if (!escritos.contains(fila.datos().sku())) {
+                    contadores.error(fila.linea(), fila.datos().sku(), "Producto ya existe con SKU: " + fila.datos().sku());
+                }
+            }
+        }
+        contadores.insertadas += inserts.size();
+        contadores.actualizadas += updates.size();
+
+        List<String> skus = new ArrayList<>(inserts.size() + updates.size());
+        inserts.forEach(f -> skus.add(f.datos().sku()));
+        updates.forEach(f -> skus.add(f.datos().sku()));
+        productoService.reindexarProductos(skus);
+    }
+
+    private static void asignarInsert(PreparedStatement ps, Fila fila, Timestamp ahora) throws SQLException {
+        ProductoImportacion d = fila.datos();
+        ps.setString(1, d.sku());
+        ps.setString(2, d.titulo());
+        ps.setLong(3, fila.idArtista());
+        ps.setLong(4, fila.idSello());
+        ps.setString(5, d.nombreFormato());
+        ps.setString(6, d.tipoFormato());
+        ps.setString(7, d.urlImagen());
+        ps.setObject(8, d.anioLanzamiento(), Types.INTEGER);
+        ps.setString(9, d.descripcion());
+        ps.setInt(10, d.precio());
+        int stock = d.cantidadStock() != null ? d.cantidadStock() : 0;
+        ps.setInt(11, stock);
+        // Sin stock nunca queda disponible, igual que tras descontarStock
+        ps.setBoolean(12, stock > 0 && (d.estaDisponible() == null || d.estaDisponible()));
+        ps.setTimestamp(13, ahora);
+        ps.setTimestamp(14, ahora);
+    }
+
+    private static void asignarUpdate(PreparedStatement ps, Fila fila, Timestamp ahora) throws SQLException {
+        ProductoImportacion d = fila.datos();
+        ps.setString(1, d.titulo());
+        ps.setLong(2, fila.idArtista());
+        ps.setLong(3, fila.idSello());
+        ps.setString(4, d.nombreFormato());
+        ps.setString(5, d.tipoFormato());
+        ps.setString(6, d.urlImagen());
+        ps.setObject(7, d.anioLanzamiento(), Types.INTEGER);
+        ps.setString(8, d.descripcion());
+        ps.setInt(9, d.precio());
+        ps.setTimestamp(10, ahora);
+        ps.setString(11, d.sku());
+    }
+
+    // Todas las restricciones que no cumple la fila en un solo mensaje, ordenadas por campo
+    private String validar(ProductoImportacion d) {
+        Set<ConstraintViolation<ProductoImportacion>> violaciones = validator.validate(d);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private ProductoImportacion leerJson(String linea) throws IOException {
+        return objectMapper.readValue(linea, ProductoImportacion.class);
+    }
+
+    private ProductoImportacion leerCsv(List<String> cabecera, String linea) {
+        List<String> valores = separarCsv(linea);
+        if (valores.size() != cabecera.size()) {
+            throw new IllegalArgumentException("se esperaban " + cabecera.size() + " columnas y hay " + valores.size());
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String valor = valores.get(i);
+            campos.put(cabecera.get(i).trim(), valor.isEmpty() ? null : valor);
+        }
+        return objectMapper.convertValue(campos, ProductoImportacion.class);
+    }
+
+    // CSV con comillas dobles opcionales y "" como escape; no admite saltos de línea dentro de un campo
+    static List<String> separarCsv(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    // Un archivo con millones de filas inválidas no debe llenar la memoria ni la respuesta: se guardan
+    // los primeros errores y el resto solo se cuenta
+    private static class Contadores {
+        private final int maximoErrores;
+        private int procesadas;
+        private int insertadas;
+        private int actualizadas;
+        private int totalErrores;
+        private final List<ErrorFila> errores = new ArrayList<>();
+
+        private Contadores(int maximoErrores) {
+            this.maximoErrores = maximoErrores;
+        }
+
+        private void error(long linea, String sku, String mensaje) {
+            totalErrores++;
+            if (errores.size() < maximoErrores) {
+                errores.add(new ErrorFila(linea, sku, mensaje));
+            }
+        }
+    }
+}
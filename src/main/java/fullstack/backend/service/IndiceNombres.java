@@ -0,0 +1,90 @@
+package fullstack.backend.service;
+
+import fullstack.backend.utils.Texto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Índice ordenado de nombres normalizados para autocompletar. Cada nombre se registra también
+// desde cada una de sus palabras, de modo que "beat" sugiere "The Beatles".
+public class IndiceNombres<T> {
+
+    // Separa el texto del id en la clave, y ordena antes que cualquier carácter visible
+    private static final char SEPARADOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Long> claves = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> clavesPorId = new ConcurrentHashMap<>();
+    private final Map<Long, T> valores = new ConcurrentHashMap<>();
+    // Nombre en minúsculas, sin normalizar, para la búsqueda por subcadena
+    private final ConcurrentSkipListMap<Long, String> nombres = new ConcurrentSkipListMap<>();
+
+    public synchronized void registrar(Long id, String nombre, T valor) {
+        quitar(id);
+        List<String> palabras = Texto.tokenizar(nombre);
+        List<String> nuevas = new ArrayList<>(palabras.size());
+        for (int i = 0; i < palabras.size(); i++) {
+            String clave = String.join(" ", palabras.subList(i, palabras.size())) + SEPARADOR + id;
+            claves.put(clave, id);
+            nuevas.add(clave);
+        }
+        clavesPorId.put(id, nuevas);
+        valores.put(id, valor);
+        nombres.put(id, nombre == null ? "" : nombre.toLowerCase());
+    }
+
+    public synchronized void eliminar(Long id) {
+        quitar(id);
+    }
+
+    public List<T> sugerir(String prefijo, int limite) {
+        String normalizado = String.join(" ", Texto.tokenizar(prefijo));
+        if (normalizado.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : claves.subMap(normalizado, normalizado + Character.MAX_VALUE).values()) {
+            ids.add(id);
+            if (ids.size() >= limite) {
+                break;
+            }
+        }
+        List<T> sugerencias = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T valor = valores.get(id);
+            if (valor != null) {
+                sugerencias.add(valor);
+            }
+        }
+        return sugerencias;
+    }
+
+    // Coincidencia por subcadena sin distinguir mayúsculas, en orden de id, igual que el antiguo
+    // filtro sobre findAll() pero sin consultar la base de datos
+    public List<T> contienen(String texto) {
+        String buscado = texto.toLowerCase();
+        List<T> encontrados = new ArrayList<>();
+        nombres.forEach((id, nombre) -> {
+            if (nombre.contains(buscado)) {
+                T valor = valores.get(id);
+                if (valor != null) {
+                    encontrados.add(valor);
+                }
+            }
+        });
+        return encontrados;
+    }
+
+    private void quitar(Long id) {
+        List<String> anteriores = clavesPorId.remove(id);
+        if (anteriores != null) {
+            anteriores.forEach(claves::remove);
+        }
+        valores.remove(id);
+        nombres.remove(id);
+    }
+}
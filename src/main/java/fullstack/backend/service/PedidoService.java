@@ -0,0 +1,157 @@
+package fullstack.backend.service;
+
+import fullstack.backend.dto.CantidadPorSku;
+import fullstack.backend.dto.ProductoResumen;
+import fullstack.backend.model.Carrito;
+import fullstack.backend.model.LineaPedido;
+import fullstack.backend.model.Pedido;
+import fullstack.backend.repository.CarritoRepository;
+import fullstack.backend.repository.ItemCarritoRepository;
+import fullstack.backend.repository.PedidoRepository;
+import fullstack.backend.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Checkout: convierte el carrito en un pedido dentro de una sola transacción. El stock de todas
+// las líneas se descuenta en un batch JDBC ordenado por SKU, de modo que dos checkouts concurrentes
+// toman los bloqueos de fila en el mismo orden y no pueden bloquearse mutuamente. Las reservas vigentes
+// del usuario para esos SKU se consumen en la misma transacción: sus unidades ya estaban descontadas.
+@Service
+public class PedidoService {
+
+    private static final String DESCONTAR_SQL = "UPDATE productos SET cantidad_stock = cantidad_stock - ?, "
+            + "esta_disponible = CASE WHEN cantidad_stock = ? THEN ? ELSE esta_disponible END, actualizado_en = ? "
+            + "WHERE sku = ? AND cantidad_stock >= ? AND esta_disponible = ?";
+
+    // Un carrito de compra nunca se acerca al límite de 1000 elementos de una lista IN de Oracle
+    private static final int LINEAS_MAXIMAS = 1000;
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ReservaStockService reservaStockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public Pedido checkout(Integer rutUsuario) {
+        Carrito carrito = carritoRepository.findParaCheckoutByRut(rutUsuario)
+                .orElseThrow(() -> new RuntimeException("Carrito no encontrado para el rut: " + rutUsuario));
+        List<CantidadPorSku> items = itemCarritoRepository.sumarCantidadesPorSku(carrito.getId());
+        if (items.isEmpty()) {
+            throw new RuntimeException("El carrito está vacío");
+        }
+        if (items.size() > LINEAS_MAXIMAS) {
+            throw new RuntimeException("El carrito supera las " + LINEAS_MAXIMAS + " líneas");
+        }
+
+        // Precio y título de todas las líneas en una sola consulta
+        List<String> skus = items.stream().map(CantidadPorSku::sku).toList();
+        Map<String, ProductoResumen> productos = productoRepository.findResumenesBySkuIn(skus).stream()
+                .collect(Collectors.toMap(ProductoResumen::sku, Function.identity()));
+        Map<String, Integer> reservadas = reservaStockService.consumir(rutUsuario, skus);
+
+        // Solo se descuenta lo que las reservas no cubren; lo reservado de más vuelve al inventario
+        List<CantidadPorSku> porDescontar = new ArrayList<>();
+        Map<String, Integer> sobrantes = new TreeMap<>();
+        for (CantidadPorSku item : items) {
+            ProductoResumen producto = productos.get(item.sku());
+            if (producto == null) {
+                throw new RuntimeException("Producto no encontrado con id: " + item.sku());
+            }
+            long faltan = item.cantidad() - reservadas.getOrDefault(item.sku(), 0);
+            if (faltan > 0) {
+                if (!Boolean.TRUE.equals(producto.estaDisponible())) {
+                    throw new RuntimeException("Producto no disponible: " + item.sku());
+                }
+                porDescontar.add(new CantidadPorSku(item.sku(), faltan));
+            } else if (faltan < 0) {
+                sobrantes.put(item.sku(), Math.toIntExact(-faltan));
+            }
+        }
+
+        // Las líneas ya vienen ordenadas por SKU; una fila sin stock suficiente revierte todo el checkout
+        LocalDateTime ahora = LocalDateTime.now();
+        if (!porDescontar.isEmpty()) {
+            int[][] resultados = jdbcTemplate.batchUpdate(DESCONTAR_SQL, porDescontar, porDescontar.size(), (ps, item) -> {
+                int cantidad = Math.toIntExact(item.cantidad());
+                ps.setInt(1, cantidad);
+                ps.setInt(2, cantidad);
+                ps.setBoolean(3, false);
+                ps.setTimestamp(4, Timestamp.valueOf(ahora));
+                ps.setString(5, item.sku());
+                ps.setInt(6, cantidad);
+                ps.setBoolean(7, true);
+            });
+            int i = 0;
+            for (int[] lote : resultados) {
+                for (int filas : lote) {
+                    if (filas == 0) {
+                        throw new RuntimeException("Stock insuficiente para el SKU: " + porDescontar.get(i).sku());
+                    }
+                    i++;
+                }
+            }
+        }
+        sobrantes.forEach((sku, cantidad) -> productoRepository.devolverStock(sku, cantidad, ahora));
+
+        Pedido pedido = new Pedido();
+        pedido.setRutUsuario(rutUsuario);
+        pedido.setCreadoEn(ahora);
+        long total = 0;
+        for (CantidadPorSku item : items) {
+            ProductoResumen producto = productos.get(item.sku());
+            LineaPedido linea = new LineaPedido(null, pedido, item.sku(), producto.titulo(), producto.precio(),
+                    Math.toIntExact(item.cantidad()));
+            pedido.getLineas().add(linea);
+            total += (long) producto.precio() * item.cantidad();
+        }
+        pedido.setTotal(Math.toIntExact(total));
+        Pedido guardado = pedidoRepository.save(pedido);
+
+        itemCarritoRepository.deleteByCarritoId(carrito.getId());
+
+        Set<String> agotados = new HashSet<>(productoRepository.findSkusAgotados(skus));
+        skus.forEach(sku -> productoService.stockActualizado(sku, agotados.contains(sku) ? false
+                : sobrantes.containsKey(sku) ? true : null));
+        return guardado;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Pedido> getPedidoById(Long id) {
+        return pedidoRepository.findConLineasById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Pedido> getPedidosByRut(Integer rutUsuario) {
+        return pedidoRepository.findConLineasByRutUsuario(rutUsuario);
+    }
+}
@@ -0,0 +1,79 @@
+package fullstack.backend.service;
+
+import fullstack.backend.dto.Facetas;
+import fullstack.backend.model.Producto;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Contadores de facetas del catálogo mantenidos en memoria. Solo cuentan los productos disponibles;
+// por cada SKU se guardan sus valores de faceta para poder descontarlos al actualizar o eliminar.
+@Component
+public class ProductoFacetas {
+
+    private record Valores(String tipoFormato, Long artistaId, Long selloId, Integer decada, boolean disponible) {
+    }
+
+    private final Map<String, Valores> porSku = new HashMap<>();
+    private final Map<String, Long> tiposFormato = new HashMap<>();
+    private final Map<Long, Long> artistas = new HashMap<>();
+    private final Map<Long, Long> sellos = new HashMap<>();
+    private final Map<Integer, Long> decadas = new HashMap<>();
+
+    public synchronized void indexar(Producto producto) {
+        Valores valores = new Valores(
+                producto.getTipoFormato(),
+                producto.getArtista() != null ? producto.getArtista().getId() : null,
+                producto.getSello() != null ? producto.getSello().getId() : null,
+                producto.getAnioLanzamiento() != null ? producto.getAnioLanzamiento() / 10 * 10 : null,
+                Boolean.TRUE.equals(producto.getEstaDisponible()));
+        reemplazar(producto.getSku(), valores);
+    }
+
+    public synchronized void eliminar(String sku) {
+        reemplazar(sku, null);
+    }
+
+    // Para cambios de disponibilidad hechos con SQL directo (p. ej. al agotarse el stock)
+    public synchronized void cambiarDisponibilidad(String sku, boolean disponible) {
+        Valores actuales = porSku.get(sku);
+        if (actuales != null && actuales.disponible() != disponible) {
+            reemplazar(sku, new Valores(actuales.tipoFormato(), actuales.artistaId(), actuales.selloId(),
+                    actuales.decada(), disponible));
+        }
+    }
+
+    public synchronized Facetas obtener() {
+        Map<String, Long> artistasPorId = new TreeMap<>();
+        artistas.forEach((id, conteo) -> artistasPorId.put(String.valueOf(id), conteo));
+        Map<String, Long> sellosPorId = new TreeMap<>();
+        sellos.forEach((id, conteo) -> sellosPorId.put(String.valueOf(id), conteo));
+        return new Facetas(new TreeMap<>(tiposFormato), artistasPorId, sellosPorId, new TreeMap<>(decadas));
+    }
+
+    private void reemplazar(String sku, Valores nuevos) {
+        Valores anteriores = nuevos == null ? porSku.remove(sku) : porSku.put(sku, nuevos);
+        if (anteriores != null && anteriores.disponible()) {
+            sumar(anteriores, -1);
+        }
+        if (nuevos != null && nuevos.disponible()) {
+            sumar(nuevos, 1);
+        }
+    }
+
+    private void sumar(Valores valores, long delta) {
+        sumar(tiposFormato, valores.tipoFormato(), delta);
+        sumar(artistas, valores.artistaId(), delta);
+        sumar(sellos, valores.selloId(), delta);
+        sumar(decadas, valores.decada(), delta);
+    }
+
+    private static <K> void sumar(Map<K, Long> conteos, K clave, long delta) {
+        if (clave != null) {
+            // merge elimina la entrada cuando el conteo llega a cero
+            conteos.merge(clave, delta, (actual, d) -> actual + d == 0 ? null : actual + d);
+        }
+    }
+}
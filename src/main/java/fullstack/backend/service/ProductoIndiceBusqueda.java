@@ -0,0 +1,155 @@
+package fullstack.backend.service;
+
+import fullstack.backend.model.Producto;
+import fullstack.backend.utils.Texto;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido en memoria: término normalizado -> SKU -> campos en que aparece
+@Component
+public class ProductoIndiceBusqueda {
+
+    public static final int CAMPO_TITULO = 1;
+    public static final int CAMPO_ARTISTA = 2;
+    public static final int CAMPO_SELLO = 4;
+    public static final int CAMPO_DESCRIPCION = 8;
+    public static final int TODOS_LOS_CAMPOS = CAMPO_TITULO | CAMPO_ARTISTA | CAMPO_SELLO | CAMPO_DESCRIPCION;
+
+    private final NavigableMap<String, Map<String, Integer>> terminos = new TreeMap<>();
+    private final Map<String, Set<String>> terminosPorSku = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void indexar(Producto producto) {
+        Map<String, Integer> campos = new HashMap<>();
+        agregarCampo(campos, producto.getTitulo(), CAMPO_TITULO);
+        if (producto.getArtista() != null) {
+            agregarCampo(campos, producto.getArtista().getNombreArtista(), CAMPO_ARTISTA);
+        }
+        if (producto.getSello() != null) {
+            agregarCampo(campos, producto.getSello().getNombreSello(), CAMPO_SELLO);
+        }
+        agregarCampo(campos, producto.getDescripcion(), CAMPO_DESCRIPCION);
+
+        lock.writeLock().lock();
+        try {
+            quitar(producto.getSku());
+            campos.forEach((termino, mascara) -> terminos
+                    .computeIfAbsent(termino, t -> new HashMap<>())
+                    .put(producto.getSku(), mascara));
+            terminosPorSku.put(producto.getSku(), new HashSet<>(campos.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(String sku) {
+        lock.writeLock().lock();
+        try {
+            quitar(sku);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Todos los términos deben aparecer; el último se trata como prefijo para búsquedas mientras se escribe.
+    // Retorna los SKU ordenados por relevancia (peso de los campos en que aparece cada término).
+    public List<String> buscar(String consulta, int campos, int limite) {
+        List<String> consultaTerminos = Texto.tokenizar(consulta);
+        if (consultaTerminos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> puntajes = null;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < consultaTerminos.size(); i++) {
+                boolean esUltimo = i == consultaTerminos.size() - 1;
+                Map<String, Integer> coincidencias = coincidencias(consultaTerminos.get(i), esUltimo, campos);
+                if (puntajes == null) {
+                    puntajes = coincidencias;
+                } else {
+                    puntajes.keySet().retainAll(coincidencias.keySet());
+                    puntajes.replaceAll((sku, puntaje) -> puntaje + coincidencias.get(sku));
+                }
+                if (puntajes.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return puntajes.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<String, Integer> coincidencias(String termino, boolean comoPrefijo, int campos) {
+        Map<String, Integer> mascaras = new HashMap<>();
+        Map<String, Map<String, Integer>> encontrados = comoPrefijo
+                ? terminos.subMap(termino, true, termino + Character.MAX_VALUE, false)
+                : terminos.subMap(termino, true, termino, true);
+        for (Map<String, Integer> porSku : encontrados.values()) {
+            porSku.forEach((sku, mascara) -> {
+                if ((mascara & campos) != 0) {
+                    mascaras.merge(sku, mascara & campos, (a, b) -> a | b);
+                }
+            });
+        }
+        Map<String, Integer> puntajes = new HashMap<>();
+        mascaras.forEach((sku, mascara) -> puntajes.put(sku, peso(mascara)));
+        return puntajes;
+    }
+
+    private static int peso(int mascara) {
+        int peso = 0;
+        if ((mascara & CAMPO_TITULO) != 0) {
+            peso += 4;
+        }
+        if ((mascara & CAMPO_ARTISTA) != 0) {
+            peso += 3;
+        }
+        if ((mascara & CAMPO_SELLO) != 0) {
+            peso += 1;
+        }
+        if ((mascara & CAMPO_DESCRIPCION) != 0) {
+            peso += 1;
+        }
+        return peso;
+    }
+
+    private static void agregarCampo(Map<String, Integer> campos, String texto, int campo) {
+        for (String termino : Texto.tokenizar(texto)) {
+            campos.merge(termino, campo, (a, b) -> a | b);
+        }
+    }
+
+    // Requiere el lock de escritura
+    private void quitar(String sku) {
+        Set<String> anteriores = terminosPorSku.remove(sku);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termino : anteriores) {
+            Map<String, Integer> porSku = terminos.get(termino);
+            if (porSku != null) {
+                porSku.remove(sku);
+                if (porSku.isEmpty()) {
+                    terminos.remove(termino);
+                }
+            }
+        }
+    }
+}
@@ -1,27 +1,109 @@
 package fullstack.backend.service;
 
+import fullstack.backend.dto.Facetas;
+import fullstack.backend.dto.ProductoFiltro;
+import fullstack.backend.dto.ProductoPorSku;
+import fullstack.backend.dto.ProductoResumen;
 import fullstack.backend.model.Producto;
+import fullstack.backend.repository.ItemCarritoRepository;
 import fullstack.backend.repository.ProductoRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ProductoService {
 
+    // Límite de elementos en una lista IN de Oracle
+    private static final int TAMANO_LOTE_IN = 1000;
+
     @Autowired
     private ProductoRepository productoRepository;
 
-    public List<Producto> getAllProductos() {
-        return productoRepository.findAll();
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private ProductoIndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private ProductoFacetas facetas;
+
+    @Autowired
+    private VersionesColeccion versiones;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Una escritura de productos en otro nodo vuelve obsoletas las cachés de este
+    @PostConstruct
+    void registrarInvalidacion() {
+        versiones.alCambiar(VersionesColeccion.PRODUCTOS, () -> {
+            Cache detalle = cacheManager.getCache("productos");
+            if (detalle != null) {
+                detalle.clear();
+            }
+            Cache listas = cacheManager.getCache("productosListas");
+            if (listas != null) {
+                listas.clear();
+            }
+        });
+    }
+
+    // Carga inicial de los índices en memoria, recorriendo el catálogo por páginas
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndices() {
+        List<Producto> pagina = productoRepository.findAllBy(paginaKeyset(TAMANO_LOTE_IN));
+        while (!pagina.isEmpty()) {
+            pagina.forEach(this::indexar);
+            String ultimoSku = pagina.get(pagina.size() - 1).getSku();
+            pagina = productoRepository.findBySkuGreaterThan(ultimoSku, paginaKeyset(TAMANO_LOTE_IN));
+        }
     }
 
-    public List<Producto> getAvailableProductos() {
-        return productoRepository.findByEstaDisponibleTrue();
+    @Cacheable(cacheNames = "productosListas", key = "{#root.methodName, #cursor, #limite}")
+    public List<ProductoResumen> getProductosPage(String cursor, int limite) {
+        if (cursor == null) {
+            return productoRepository.findResumenes(Limit.of(limite));
+        }
+        return productoRepository.findResumenesDesde(cursor, Limit.of(limite));
+    }
+
+    @Cacheable(cacheNames = "productosListas", key = "{#root.methodName, #cursor, #limite}")
+    public List<ProductoResumen> getAvailableProductosPage(String cursor, int limite) {
+        if (cursor == null) {
+            return productoRepository.findResumenesDisponibles(Limit.of(limite));
+        }
+        return productoRepository.findResumenesDisponiblesDesde(cursor, Limit.of(limite));
     }
 
+    @Cacheable(cacheNames = "productosListas", key = "{#root.methodName, #filtro, #desde, #limite}")
+    public List<ProductoResumen> filtrarProductos(ProductoFiltro filtro, int desde, int limite) {
+        return productoRepository.filtrarResumenes(filtro, desde, limite);
+    }
+
+    @Cacheable(cacheNames = "productos", key = "#id")
     public Optional<Producto> getProductoById(String id) {
         return productoRepository.findById(id);
     }
@@ -34,7 +116,10 @@ public class ProductoService {
 
         producto.setCreadoEn(LocalDateTime.now());
         producto.setActualizadoEn(LocalDateTime.now());
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        indexar(guardado);
+        invalidarProductos(List.of(guardado.getSku()));
+        return guardado;
     }
 
     public Producto updateProducto(String id, Producto productoDetails) {
@@ -56,39 +141,171 @@ public class ProductoService {
             existingProducto.setAnioLanzamiento(productoDetails.getAnioLanzamiento());
             existingProducto.setDescripcion(productoDetails.getDescripcion());
             existingProducto.setPrecio(productoDetails.getPrecio());
-            existingProducto.setCantidadStock(productoDetails.getCantidadStock());
-            existingProducto.setCalificacionPromedio(productoDetails.getCalificacionPromedio());
-            existingProducto.setConteoCalificaciones(productoDetails.getConteoCalificaciones());
-            existingProducto.setEstaDisponible(productoDetails.getEstaDisponible());
+            // Stock y disponibilidad solo cambian con deltas atómicos (ajustarStock, reservas, checkout):
+            // copiarlos aquí pisaría los descuentos concurrentes
             existingProducto.setActualizadoEn(LocalDateTime.now());
 
-            return productoRepository.save(existingProducto);
+            Producto guardado = productoRepository.save(existingProducto);
+            indexar(guardado);
+            invalidarProductos(List.of(id));
+            return guardado;
         }
         throw new RuntimeException("Producto no encontrado con id: " + id);
     }
 
-    @Autowired
-    private fullstack.backend.repository.ItemCarritoRepository itemCarritoRepository;
+    // Ajuste administrativo de inventario como delta atómico; false si dejaría el stock en negativo
+    @Transactional
+    public boolean ajustarStock(String sku, int delta) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("El ajuste de stock no puede ser cero");
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        int filas = delta > 0
+                ? productoRepository.devolverStock(sku, delta, ahora)
+                : productoRepository.descontarStock(sku, -delta, ahora);
+        if (filas == 0) {
+            if (!productoRepository.existsById(sku)) {
+                throw new RuntimeException("Producto no encontrado con id: " + sku);
+            }
+            return false;
+        }
+        int stock = productoRepository.findCantidadStock(sku);
+        if (stock == 0) {
+            stockActualizado(sku, false);
+        } else {
+            stockActualizado(sku, delta > 0 && stock == delta ? true : null);
+        }
+        return true;
+    }
 
-    @org.springframework.transaction.annotation.Transactional
+    // Activa o retira un producto de la venta sin tocar su stock. false si se pide activarlo sin stock;
+    // el paso automático a no disponible al llegar a cero se mantiene en descontarStock.
+    @Transactional
+    public boolean cambiarDisponibilidad(String sku, boolean disponible) {
+        if (productoRepository.cambiarDisponibilidad(sku, disponible, LocalDateTime.now()) == 1) {
+            stockActualizado(sku, disponible);
+            return true;
+        }
+        Integer stock = productoRepository.findCantidadStock(sku);
+        if (stock == null) {
+            throw new RuntimeException("Producto no encontrado con id: " + sku);
+        }
+        // Ya estaba en el estado pedido, salvo que se quiera activar sin stock
+        return !disponible || stock > 0;
+    }
+
+    @Transactional
     public void deleteProducto(String id) {
         Optional<Producto> producto = productoRepository.findById(id);
         if (producto.isPresent()) {
             itemCarritoRepository.deleteBySku(id);
             productoRepository.delete(producto.get());
+            indiceBusqueda.eliminar(id);
+            facetas.eliminar(id);
+            invalidarProductos(List.of(id));
         } else {
             throw new RuntimeException("Producto no encontrado con id: " + id);
         }
     }
 
-    public List<Producto> getProductosByArtista(Long artistaId) {
-        return productoRepository.findByArtistaId(artistaId);
+    @Cacheable(cacheNames = "productosListas", key = "{#root.methodName, #artistaId, #cursor, #limite}")
+    public List<ProductoResumen> getProductosByArtistaPage(Long artistaId, String cursor, int limite) {
+        if (cursor == null) {
+            return productoRepository.findResumenesByArtista(artistaId, Limit.of(limite));
+        }
+        return productoRepository.findResumenesByArtistaDesde(artistaId, cursor, Limit.of(limite));
+    }
+
+    @Cacheable(cacheNames = "productosListas", key = "{#root.methodName, #tipoFormato, #cursor, #limite}")
+    public List<ProductoResumen> getProductosByFormatoPage(String tipoFormato, String cursor, int limite) {
+        if (cursor == null) {
+            return productoRepository.findResumenesByFormato(tipoFormato, Limit.of(limite));
+        }
+        return productoRepository.findResumenesByFormatoDesde(tipoFormato, cursor, Limit.of(limite));
+    }
+
+    // Para escrituras hechas fuera de las entidades (p. ej. importación por JDBC)
+    public void reindexarProductos(Collection<String> skus) {
+        cargarEnOrden(List.copyOf(skus)).forEach(this::indexar);
+        invalidarProductos(skus);
     }
 
-    public List<Producto> getProductosByFormato(String tipoFormato) {
-        return productoRepository.findByTipoFormato(tipoFormato);
+    // Los productos incluyen el nombre del artista o sello, así que un cambio de nombre los afecta
+    public void artistaActualizado(Long artistaId) {
+        productoRepository.findByArtistaId(artistaId).forEach(this::indexar);
+        invalidarCatalogo();
     }
 
+    public void selloActualizado(Long selloId) {
+        productoRepository.findBySelloId(selloId).forEach(this::indexar);
+        invalidarCatalogo();
+    }
+
+    // Quita los SKU de la caché de detalle y descarta las listas; recién después avanza la versión
+    // del catálogo, para que un ETag nuevo nunca se asocie a una lectura previa al cambio.
+    // Dentro de una transacción se ejecuta al confirmarla.
+    public void invalidarProductos(Collection<String> skus) {
+        List<String> copia = List.copyOf(skus);
+        despuesDelCommit(() -> {
+            Cache detalle = cacheManager.getCache("productos");
+            if (detalle != null) {
+                copia.forEach(detalle::evict);
+            }
+            limpiarListasYVersion();
+        });
+    }
+
+    // Un cambio de stock solo afecta al detalle; las listas y facetas solo si cambió la disponibilidad
+    public void stockActualizado(String sku, Boolean disponible) {
+        despuesDelCommit(() -> {
+            Cache detalle = cacheManager.getCache("productos");
+            if (detalle != null) {
+                detalle.evict(sku);
+            }
+            if (disponible != null) {
+                facetas.cambiarDisponibilidad(sku, disponible);
+                limpiarListasYVersion();
+            }
+        });
+    }
+
+    public void invalidarCatalogo() {
+        despuesDelCommit(() -> {
+            Cache detalle = cacheManager.getCache("productos");
+            if (detalle != null) {
+                detalle.clear();
+            }
+            limpiarListasYVersion();
+        });
+    }
+
+    public String getEtagCatalogo() {
+        return versiones.etag(VersionesColeccion.PRODUCTOS);
+    }
+
+    public Facetas getFacetas() {
+        return facetas.obtener();
+    }
+
+    public List<ProductoResumen> searchProductos(String consulta, int limite) {
+        List<String> skus = indiceBusqueda.buscar(consulta, ProductoIndiceBusqueda.TODOS_LOS_CAMPOS, limite);
+        Map<String, ProductoResumen> porSku = cargarResumenes(skus);
+        return skus.stream().map(porSku::get).filter(Objects::nonNull).toList();
+    }
+
+    // Una entrada por SKU solicitado, en el mismo orden y con los repetidos incluidos
+    public List<ProductoPorSku> getProductosBySkus(List<String> skus) {
+        Map<String, ProductoResumen> porSku = cargarResumenes(new ArrayList<>(new LinkedHashSet<>(skus)));
+        List<ProductoPorSku> resultado = new ArrayList<>(skus.size());
+        for (String sku : skus) {
+            ProductoResumen producto = porSku.get(sku);
+            resultado.add(new ProductoPorSku(sku, producto != null, producto));
+        }
+        return resultado;
+    }
+
+    // Conservan la búsqueda por subcadena ("eatle" encuentra "Beatles"); el índice por términos
+    // solo atiende /search, que tiene semántica propia
     public List<Producto> searchProductosByTitulo(String titulo) {
         return productoRepository.findByTituloContainingIgnoreCase(titulo);
     }
@@ -100,4 +317,55 @@ public class ProductoService {
     public boolean productoExists(String id) {
         return productoRepository.existsById(id);
     }
+
+    private void limpiarListasYVersion() {
+        Cache listas = cacheManager.getCache("productosListas");
+        if (listas != null) {
+            listas.clear();
+        }
+        versiones.incrementar(VersionesColeccion.PRODUCTOS);
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private void indexar(Producto producto) {
+        indiceBusqueda.indexar(producto);
+        facetas.indexar(producto);
+    }
+
+    private Map<String, ProductoResumen> cargarResumenes(List<String> skus) {
+        Map<String, ProductoResumen> porSku = new HashMap<>();
+        for (int i = 0; i < skus.size(); i += TAMANO_LOTE_IN) {
+            List<String> lote = skus.subList(i, Math.min(i + TAMANO_LOTE_IN, skus.size()));
+            productoRepository.findResumenesBySkuIn(lote).forEach(r -> porSku.put(r.sku(), r));
+        }
+        return porSku;
+    }
+
+    // Resuelve los SKU con consultas IN por lotes y respeta el orden recibido
+    private List<Producto> cargarEnOrden(List<String> skus) {
+        Map<String, Producto> porSku = new HashMap<>();
+        for (int i = 0; i < skus.size(); i += TAMANO_LOTE_IN) {
+            List<String> lote = skus.subList(i, Math.min(i + TAMANO_LOTE_IN, skus.size()));
+            productoRepository.findAllById(lote).forEach(p -> porSku.put(p.getSku(), p));
+        }
+        List<Producto> productos = new ArrayList<>(skus.size());
+        skus.stream().map(porSku::get).filter(Objects::nonNull).forEach(productos::add);
+        return productos;
+    }
+
+    private static Pageable paginaKeyset(int limite) {
+        return PageRequest.of(0, limite, Sort.by("sku"));
+    }
 }
@@ -0,0 +1,182 @@
+package fullstack.backend.service;
+
+import fullstack.backend.dto.Reserva;
+import fullstack.backend.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Reservas de stock para ventas con alta concurrencia. Reservar descuenta de inmediato con un UPDATE
+// condicional sobre la fila del SKU (sin leer ni bloquear antes) y, en la misma transacción, inserta la
+// fila de reservas_stock. Confirmar, liberar o expirar borran esa fila; solo quien logra el DELETE
+// decide qué pasa con el stock, así las operaciones se excluyen también entre nodos y tras un reinicio
+// el barrido devuelve lo que quedó apartado.
+@Service
+public class ReservaStockService {
+
+    private static final String INSERTAR_SQL =
+            "INSERT INTO reservas_stock (id, sku, cantidad, rut_usuario, expira_en) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECCIONAR_SQL =
+            "SELECT id, sku, cantidad, rut_usuario, expira_en FROM reservas_stock WHERE id = ?";
+    private static final String BORRAR_SQL = "DELETE FROM reservas_stock WHERE id = ?";
+    private static final String BORRAR_VIGENTE_SQL = "DELETE FROM reservas_stock WHERE id = ? AND expira_en > ?";
+    private static final String EXPIRADAS_SQL = "SELECT id, sku, cantidad, rut_usuario, expira_en FROM reservas_stock "
+            + "WHERE expira_en <= ? ORDER BY expira_en FETCH FIRST ? ROWS ONLY";
+    // Bloquea la fila del usuario: dos reservas suyas en paralelo, aun en nodos distintos, suman el tope en orden
+    private static final String BLOQUEAR_USUARIO_SQL = "SELECT rut FROM usuarios WHERE rut = ? FOR UPDATE";
+    private static final String UNIDADES_USUARIO_SQL =
+            "SELECT COALESCE(SUM(cantidad), 0) FROM reservas_stock WHERE rut_usuario = ? AND expira_en > ?";
+
+    private static final RowMapper<Reserva> MAPEO = (rs, fila) -> new Reserva(rs.getString("id"),
+            rs.getString("sku"), rs.getInt("cantidad"), rs.getObject("rut_usuario", Integer.class),
+            rs.getTimestamp("expira_en").toInstant());
+
+    @Value("${catalogo.reservas.ttlSegundos:600}")
+    private long ttlSegundos;
+
+    @Value("${catalogo.reservas.maximoPorReserva:10}")
+    private int maximoPorReserva;
+
+    @Value("${catalogo.reservas.maximoPorUsuario:20}")
+    private int maximoPorUsuario;
+
+    @Value("${catalogo.reservas.tamanoLote:500}")
+    private int tamanoLote;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public int getMaximoPorReserva() {
+        return maximoPorReserva;
+    }
+
+    // Vacío si no hay stock suficiente; lanza excepción si el SKU no existe o el usuario ya tiene
+    // apartadas demasiadas unidades, así una sola cuenta no puede acaparar el stock de una oferta
+    public Optional<Reserva> reservar(String sku, int cantidad, Integer rutUsuario) {
+        if (cantidad < 1 || cantidad > maximoPorReserva) {
+            throw new IllegalArgumentException("Cantidad fuera del rango permitido: " + cantidad);
+        }
+        Reserva reserva = new Reserva(UUID.randomUUID().toString(), sku, cantidad, rutUsuario,
+                Instant.now().plusSeconds(ttlSegundos));
+        Boolean disponible = new TransactionTemplate(transactionManager).execute(estado -> {
+            if (rutUsuario != null) {
+                jdbcTemplate.queryForList(BLOQUEAR_USUARIO_SQL, Integer.class, rutUsuario);
+                Integer apartadas = jdbcTemplate.queryForObject(UNIDADES_USUARIO_SQL, Integer.class, rutUsuario,
+                        Timestamp.from(Instant.now()));
+                if (apartadas != null && apartadas + cantidad > maximoPorUsuario) {
+                    throw new IllegalStateException("Límite de unidades reservadas por usuario alcanzado");
+                }
+            }
+            if (productoRepository.descontarStockDisponible(sku, cantidad, LocalDateTime.now()) == 0) {
+                return null;
+            }
+            jdbcTemplate.update(INSERTAR_SQL, reserva.id(), sku, cantidad, rutUsuario, Timestamp.from(reserva.expiraEn()));
+            boolean agotado = productoRepository.findCantidadStock(sku) == 0;
+            productoService.stockActualizado(sku, agotado ? false : null);
+            return true;
+        });
+        if (disponible == null) {
+            if (!productoRepository.existsById(sku)) {
+                throw new RuntimeException("Producto no encontrado con id: " + sku);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(reserva);
+    }
+
+    // rutUsuario null (administrador) ve cualquier reserva; las ajenas se tratan como inexistentes
+    public Optional<Reserva> getReserva(String id, Integer rutUsuario) {
+        return buscar(id).filter(reserva -> reserva.perteneceA(rutUsuario));
+    }
+
+    // El stock ya está descontado: confirmar solo borra la fila, si sigue vigente. Una reserva expirada
+    // queda para el barrido, que la devuelve al inventario.
+    public boolean confirmar(String id, Integer rutUsuario) {
+        Optional<Reserva> reserva = getReserva(id, rutUsuario);
+        return reserva.isPresent()
+                && jdbcTemplate.update(BORRAR_VIGENTE_SQL, id, Timestamp.from(Instant.now())) == 1;
+    }
+
+    // Llamado dentro de la transacción del checkout: bloquea y borra las reservas vigentes del usuario
+    // para esos SKU y retorna sus unidades por SKU, que ya están descontadas del stock. Si el checkout se
+    // revierte, las reservas vuelven con él.
+    public Map<String, Integer> consumir(Integer rutUsuario, List<String> skus) {
+        if (rutUsuario == null || skus.isEmpty()) {
+            return Map.of();
+        }
+        String marcadores = String.join(", ", Collections.nCopies(skus.size(), "?"));
+        Object[] parametros = new Object[skus.size() + 2];
+        parametros[0] = rutUsuario;
+        parametros[1] = Timestamp.from(Instant.now());
+        for (int i = 0; i < skus.size(); i++) {
+            parametros[i + 2] = skus.get(i);
+        }
+        List<Reserva> vigentes = jdbcTemplate.query("SELECT id, sku, cantidad, rut_usuario, expira_en FROM reservas_stock "
+                + "WHERE rut_usuario = ? AND expira_en > ? AND sku IN (" + marcadores + ") FOR UPDATE", MAPEO, parametros);
+        if (vigentes.isEmpty()) {
+            return Map.of();
+        }
+        jdbcTemplate.update("DELETE FROM reservas_stock WHERE id IN ("
+                + String.join(", ", Collections.nCopies(vigentes.size(), "?")) + ")",
+                vigentes.stream().map(Reserva::id).toArray());
+        return vigentes.stream().collect(Collectors.groupingBy(Reserva::sku, Collectors.summingInt(Reserva::cantidad)));
+    }
+
+    public boolean liberar(String id, Integer rutUsuario) {
+        Optional<Reserva> reserva = getReserva(id, rutUsuario);
+        return reserva.isPresent() && devolver(reserva.get());
+    }
+
+    // Cada fila se devuelve en su propia transacción; si otro nodo la tomó primero, el DELETE no la encuentra
+    @Scheduled(fixedDelayString = "${catalogo.reservas.barridoMs:30000}")
+    public void expirar() {
+        List<Reserva> expiradas;
+        do {
+            expiradas = jdbcTemplate.query(EXPIRADAS_SQL, MAPEO, Timestamp.from(Instant.now()), tamanoLote);
+            expiradas.forEach(this::devolver);
+        } while (expiradas.size() == tamanoLote);
+    }
+
+    private Optional<Reserva> buscar(String id) {
+        return jdbcTemplate.query(SELECCIONAR_SQL, MAPEO, id).stream().findFirst();
+    }
+
+    // Borra la reserva y devuelve su stock en una sola transacción; false si ya no existía
+    private boolean devolver(Reserva reserva) {
+        Boolean devuelta = new TransactionTemplate(transactionManager).execute(estado -> {
+            if (jdbcTemplate.update(BORRAR_SQL, reserva.id()) == 0) {
+                return false;
+            }
+            if (productoRepository.devolverStock(reserva.sku(), reserva.cantidad(), LocalDateTime.now()) > 0) {
+                boolean repuesto = productoRepository.findCantidadStock(reserva.sku()) == reserva.cantidad();
+                productoService.stockActualizado(reserva.sku(), repuesto ? true : null);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(devuelta);
+    }
+}
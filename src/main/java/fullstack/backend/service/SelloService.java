@@ -1,8 +1,11 @@
 package fullstack.backend.service;
 
+import fullstack.backend.dto.Sugerencia;
 import fullstack.backend.model.Sello;
 import fullstack.backend.repository.SelloRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +16,19 @@ public class SelloService {
     @Autowired
     private SelloRepository selloRepository;
 
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private VersionesColeccion versiones;
+
+    private final IndiceNombres<Sello> indiceNombres = new IndiceNombres<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndiceNombres() {
+        selloRepository.findAll().forEach(this::indexar);
+    }
+
     public List<Sello> getAllSellos() {
         return selloRepository.findAll();
     }
@@ -30,7 +46,10 @@ public class SelloService {
         if (selloRepository.existsByNombreSello(sello.getNombreSello())) {
             throw new RuntimeException("Sello ya existe: " + sello.getNombreSello());
         }
-        return selloRepository.save(sello);
+        Sello guardado = selloRepository.save(sello);
+        indexar(guardado);
+        versiones.incrementar(VersionesColeccion.SELLOS);
+        return guardado;
     }
 
     public Sello updateSello(Long id, Sello selloDetails) {
@@ -45,7 +64,11 @@ public class SelloService {
             }
 
             existingSello.setNombreSello(selloDetails.getNombreSello());
-            return selloRepository.save(existingSello);
+            Sello guardado = selloRepository.save(existingSello);
+            indexar(guardado);
+            versiones.incrementar(VersionesColeccion.SELLOS);
+            productoService.selloActualizado(id);
+            return guardado;
         }
         throw new RuntimeException("Sello no encontrado con id: " + id);
     }
@@ -54,12 +77,34 @@ public class SelloService {
         Optional<Sello> sello = selloRepository.findById(id);
         if (sello.isPresent()) {
             selloRepository.delete(sello.get());
+            indiceNombres.eliminar(id);
+            versiones.incrementar(VersionesColeccion.SELLOS);
         } else {
             throw new RuntimeException("Sello no encontrado con id: " + id);
         }
     }
 
+    public List<Sello> searchSellosByNombre(String nombre) {
+        return indiceNombres.contienen(nombre);
+    }
+
+    public List<Sugerencia> sugerirSellos(String prefijo, int limite) {
+        return indiceNombres.sugerir(prefijo, limite).stream()
+                .map(sello -> new Sugerencia(sello.getId(), sello.getNombreSello()))
+                .toList();
+    }
+
+    public String getEtagSellos() {
+        return versiones.etag(VersionesColeccion.SELLOS);
+    }
+
     public boolean selloExists(Long id) {
         return selloRepository.existsById(id);
     }
+
+    // Se indexa una copia para que las sugerencias no compartan la entidad administrada
+    private void indexar(Sello sello) {
+        indiceNombres.registrar(sello.getId(), sello.getNombreSello(),
+                new Sello(sello.getId(), sello.getNombreSello(), sello.getCreadoEn()));
+    }
 }
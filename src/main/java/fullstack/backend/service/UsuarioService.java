@@ -2,8 +2,9 @@ package fullstack.backend.service;
 
 import fullstack.backend.model.Usuario;
 import fullstack.backend.repository.UsuarioRepository;
+import fullstack.backend.security.RevokedUsers;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -14,7 +15,12 @@ public class UsuarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    final private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
+    @Autowired
+    private RevokedUsers revokedUsers;
+
+    // Compartido con el login: mismo costo y mismo pool acotado de hashing
+    @Autowired
+    private PasswordEncoder encoder;
 
     public List<Usuario> obtenerUsuarios() {
         return usuarioRepository.findAll();
@@ -54,6 +60,7 @@ public class UsuarioService {
                 throw new RuntimeException("RUT ya registrado: " + usuarioActualizado.getRut());
             }
 
+            String emailAnterior = usuarioExistente.getEmail();
             usuarioExistente.setNombre(usuarioActualizado.getNombre());
             usuarioExistente.setApellido(usuarioActualizado.getApellido());
             usuarioExistente.setEmail(usuarioActualizado.getEmail());
@@ -64,7 +71,11 @@ public class UsuarioService {
             usuarioExistente.setRol(usuarioActualizado.getRol());
             usuarioExistente.setActivo(usuarioActualizado.getActivo());
 
-            return usuarioRepository.save(usuarioExistente);
+            Usuario guardado = usuarioRepository.save(usuarioExistente);
+            // Rol, estado o contraseña pudieron cambiar: los tokens ya verificados deben resolverse de nuevo
+            revokedUsers.revoke(emailAnterior);
+            revokedUsers.revoke(guardado.getEmail());
+            return guardado;
         }
         throw new RuntimeException("No se encontró usuario con rut: " + rut);
     }
@@ -73,6 +84,7 @@ public class UsuarioService {
         Optional<Usuario> usuario = usuarioRepository.findByRut(rut);
         if (usuario.isPresent()) {
             usuarioRepository.delete(usuario.get());
+            revokedUsers.revoke(usuario.get().getEmail());
         } else {
             throw new RuntimeException("No se encontró usuario con rut: " + rut);
         }
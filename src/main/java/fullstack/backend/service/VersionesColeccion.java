@@ -0,0 +1,86 @@
+package fullstack.backend.service;
+
+import fullstack.backend.utils.ETags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Versión de cada colección, guardada en versiones_coleccion para que todos los nodos compartan el
+// mismo ETag. If-None-Match se responde con la copia local, sin consultar la base de datos; la copia
+// se pone al día en cada escritura propia y con un sondeo cada catalogo.versiones.syncMs. Cuando el
+// sondeo trae una versión nueva de otro nodo, primero se descartan las cachés locales de esa
+// colección y recién después se adopta la versión, igual que en una escritura local.
+@Component
+@DependsOn("entityManagerFactory")
+public class VersionesColeccion {
+
+    public static final String PRODUCTOS = "productos";
+    public static final String ARTISTAS = "artistas";
+    public static final String SELLOS = "sellos";
+
+    private static final String INCREMENTAR_SQL = "MERGE INTO versiones_coleccion v "
+            + "USING (SELECT CAST(? AS VARCHAR(50)) AS coleccion FROM dual) d ON (v.coleccion = d.coleccion) "
+            + "WHEN MATCHED THEN UPDATE SET version = v.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (coleccion, version) VALUES (d.coleccion, 1)";
+    private static final String VERSION_SQL = "SELECT version FROM versiones_coleccion WHERE coleccion = ?";
+    private static final String TODAS_SQL = "SELECT coleccion, version FROM versiones_coleccion";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Long> versiones = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> alCambiar = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void cargar() {
+        sincronizar();
+    }
+
+    // Acción que descarta las cachés locales de la colección cuando otro nodo la modifica
+    public void alCambiar(String coleccion, Runnable accion) {
+        alCambiar.computeIfAbsent(coleccion, c -> new CopyOnWriteArrayList<>()).add(accion);
+    }
+
+    // Se llama después de confirmar la escritura; en ese punto la conexión de la transacción original
+    // ya no confirma nada, por eso el incremento usa una transacción propia
+    public void incrementar(String coleccion) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long version = transaccion.execute(estado -> {
+            jdbcTemplate.update(INCREMENTAR_SQL, coleccion);
+            return jdbcTemplate.queryForObject(VERSION_SQL, Long.class, coleccion);
+        });
+        versiones.merge(coleccion, version, Math::max);
+    }
+
+    public String etag(String coleccion) {
+        return ETags.deVersion(coleccion, versiones.getOrDefault(coleccion, 0L));
+    }
+
+    @Scheduled(fixedDelayString = "${catalogo.versiones.syncMs:5000}", initialDelayString = "${catalogo.versiones.syncMs:5000}")
+    public void sincronizar() {
+        jdbcTemplate.query(TODAS_SQL, rs -> {
+            String coleccion = rs.getString("coleccion");
+            long version = rs.getLong("version");
+            Long actual = versiones.get(coleccion);
+            if (actual == null || version > actual) {
+                alCambiar.getOrDefault(coleccion, List.of()).forEach(Runnable::run);
+                versiones.merge(coleccion, version, Math::max);
+            }
+        });
+    }
+}
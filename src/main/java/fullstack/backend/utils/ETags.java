@@ -0,0 +1,59 @@
+package fullstack.backend.utils;
+
+import fullstack.backend.assembler.PlantillaEnlace;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String deVersion(String coleccion, long version) {
+        return "\"" + coleccion + "-" + Long.toHexString(version) + representacion() + "\"";
+    }
+
+    // El SKU entra como hash para que la etiqueta solo contenga caracteres permitidos en un ETag
+    public static String deEntidad(String id, LocalDateTime actualizadoEn) {
+        if (actualizadoEn == null) {
+            return null;
+        }
+        long marca = actualizadoEn.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + Integer.toHexString(id.hashCode()) + "-" + Long.toHexString(marca) + representacion() + "\"";
+    }
+
+    // La misma URL responde HAL o JSON plano según Accept: cada representación lleva su propio ETag
+    private static String representacion() {
+        return PlantillaEnlace.incluirEnlaces() ? "-h" : "-j";
+    }
+
+    // Respuesta 200 con ETag que avisa a los cachés que el cuerpo depende de Accept
+    public static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    // If-None-Match usa comparación débil: se ignora el prefijo W/ y se acepta "*"
+    public static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> noModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+}
@@ -0,0 +1,33 @@
+package fullstack.backend.utils;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// OutputStream que entrega cada bloque escrito al cliente a través de un ResponseBodyEmitter.
+// Conviene envolverlo en un BufferedOutputStream para enviar bloques grandes y no byte a byte.
+public class SalidaEmisor extends OutputStream {
+
+    private final ResponseBodyEmitter emisor;
+    private final MediaType tipo;
+
+    public SalidaEmisor(ResponseBodyEmitter emisor, MediaType tipo) {
+        this.emisor = emisor;
+        this.tipo = tipo;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len > 0) {
+            emisor.send(Arrays.copyOfRange(b, off, off + len), tipo);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package fullstack.backend.controller;
 
 import fullstack.backend.dto.LoginRequest;
+import fullstack.backend.dto.RefreshRequest;
 import fullstack.backend.model.Usuario;
 import fullstack.backend.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,4 +67,34 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.token").exists())
                 .andExpect(jsonPath("$.email").value("test@example.com"));
     }
+
+    @Test
+    public void testRefreshRotatesAndRejectsReuse() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("test@example.com");
+        loginRequest.setPassword("password");
+
+        String login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        RefreshRequest refreshRequest = new RefreshRequest();
+        refreshRequest.setRefreshToken(objectMapper.readTree(login).get("refreshToken").asText());
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.rut").value(12345678));
+
+        // El mismo refresh token no se puede usar dos veces
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isUnauthorized());
+    }
 }
@@ -0,0 +1,34 @@
+package fullstack.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ProductoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testFiltroConDesplazamientoExcesivoRespondeBadRequest() throws Exception {
+        // pagina * tamano desbordaba int y la consulta fallaba con 500
+        mockMvc.perform(get("/api/v1/productos/filtro")
+                .param("pagina", String.valueOf(Integer.MAX_VALUE))
+                .param("tamano", "500"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/productos/filtro")
+                .param("pagina", "1000")
+                .param("tamano", "50"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,106 @@
+package fullstack.backend.security;
+
+import fullstack.backend.model.Usuario;
+import fullstack.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TokenCacheTest {
+
+    private static final String EMAIL = "revocado@example.com";
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private RevokedUsers revokedUsers;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        usuarioRepository.deleteAll();
+
+        Usuario usuario = new Usuario();
+        usuario.setRut(40000000);
+        usuario.setDv('1');
+        usuario.setEdad(30);
+        usuario.setNombre("Revocado");
+        usuario.setApellido("Test");
+        usuario.setTelefono("123456789");
+        usuario.setEmail(EMAIL);
+        usuario.setHashContrasena("x");
+        usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    public void testTokenEmitidoAntesDeLaRevocacionSeRechaza() throws Exception {
+        UserDetails usuario = userDetailsService.loadUserByUsername(EMAIL);
+        String token = jwtUtils.generateJwtToken(usuario);
+        Thread.sleep(5);
+        revokedUsers.revoke(EMAIL);
+
+        // El token nunca pasó por la caché: load() debe compararlo con la revocación
+        assertNull(tokenCache.resolve(token));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM usuarios_revocados WHERE email = ?", Integer.class, EMAIL));
+    }
+
+    @Test
+    public void testTokenEmitidoTrasLaRevocacionEnElMismoSegundoSeAcepta() throws Exception {
+        // Revocación y emisión caen en el mismo segundo, donde iat no alcanza a distinguirlas
+        while (System.currentTimeMillis() % 1000 > 500) {
+            Thread.sleep(10);
+        }
+        revokedUsers.revoke(EMAIL);
+        Thread.sleep(5);
+        String token = jwtUtils.generateJwtToken(userDetailsService.loadUserByUsername(EMAIL));
+
+        assertNotNull(tokenCache.resolve(token));
+    }
+
+    @Test
+    public void testRevocacionDeOtroNodoSeAplicaAlSincronizar() {
+        String email = "otro-nodo@example.com";
+        long ahora = System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO usuarios_revocados (email, revocado_en, expira_en) VALUES (?, ?, ?)",
+                email, new Timestamp(ahora), new Timestamp(ahora + 60_000));
+        assertFalse(revokedUsers.isRevoked(email, ahora - 1));
+
+        revokedUsers.sync();
+
+        assertTrue(revokedUsers.isRevoked(email, ahora - 1));
+        assertFalse(revokedUsers.isRevoked(email, ahora + 1));
+    }
+}
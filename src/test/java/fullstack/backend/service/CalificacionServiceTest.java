@@ -0,0 +1,84 @@
+package fullstack.backend.service;
+
+import fullstack.backend.model.Artista;
+import fullstack.backend.model.Producto;
+import fullstack.backend.model.Sello;
+import fullstack.backend.repository.ArtistaRepository;
+import fullstack.backend.repository.ProductoRepository;
+import fullstack.backend.repository.SelloRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CalificacionServiceTest {
+
+    private static final String SKU = "blue-train-vinilo";
+
+    @Autowired
+    private CalificacionService calificacionService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ArtistaRepository artistaRepository;
+
+    @Autowired
+    private SelloRepository selloRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        limpiar();
+
+        Producto producto = new Producto();
+        producto.setSku(SKU);
+        producto.setTitulo("Blue Train");
+        producto.setArtista(artistaRepository.save(new Artista(null, "John Coltrane", LocalDateTime.now())));
+        producto.setSello(selloRepository.save(new Sello(null, "Blue Note", LocalDateTime.now())));
+        producto.setNombreFormato("Vinilo");
+        producto.setTipoFormato("VINYL");
+        producto.setUrlImagen("https://example.com/" + SKU + ".jpg");
+        producto.setPrecio(28000);
+        producto.setCreadoEn(LocalDateTime.now());
+        productoRepository.save(producto);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        limpiar();
+    }
+
+    @Test
+    public void testUnVotoPorUsuario() {
+        calificacionService.calificar(SKU, 50000001, 5);
+        calificacionService.calificar(SKU, 50000001, 5);
+        calificacionService.calificar(SKU, 50000001, 1);
+        calificacionService.calificar(SKU, 50000002, 4);
+        calificacionService.volcar();
+
+        // Cuenta solo el último voto de cada usuario: (1 + 4) / 2
+        Producto producto = productoRepository.findById(SKU).orElseThrow();
+        assertEquals(2, producto.getConteoCalificaciones());
+        assertEquals(2.5, producto.getCalificacionPromedio(), 0.0001);
+    }
+
+    private void limpiar() {
+        jdbcTemplate.update("DELETE FROM calificaciones_usuario");
+        productoRepository.deleteAll();
+        artistaRepository.deleteAll();
+        selloRepository.deleteAll();
+    }
+}
@@ -0,0 +1,92 @@
+package fullstack.backend.service;
+
+import fullstack.backend.dto.OperacionCarrito;
+import fullstack.backend.dto.OperacionCarrito.Tipo;
+import fullstack.backend.model.Carrito;
+import fullstack.backend.model.Usuario;
+import fullstack.backend.repository.CarritoRepository;
+import fullstack.backend.repository.ItemCarritoRepository;
+import fullstack.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CarritoServiceTest {
+
+    private static final int RUT = 30000000;
+    private static final String SKU = "abbey-road-vinilo";
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @BeforeEach
+    public void setUp() {
+        limpiar();
+
+        Usuario usuario = new Usuario();
+        usuario.setRut(RUT);
+        usuario.setDv('1');
+        usuario.setEdad(30);
+        usuario.setNombre("Cliente");
+        usuario.setApellido("Test");
+        usuario.setTelefono("123456789");
+        usuario.setEmail("cliente@example.com");
+        usuario.setHashContrasena("x");
+        usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        limpiar();
+    }
+
+    @Test
+    public void testAgregarQueDesbordaSeRechaza() {
+        List<OperacionCarrito> operaciones = List.of(
+                new OperacionCarrito(Tipo.AGREGAR, SKU, Integer.MAX_VALUE),
+                new OperacionCarrito(Tipo.AGREGAR, SKU, 1));
+
+        // Antes la suma daba la vuelta a un número negativo y se escribía en el carrito
+        assertThrows(IllegalArgumentException.class, () -> carritoService.aplicarOperaciones(RUT, operaciones));
+        assertEquals(0, itemCarritoRepository.count());
+    }
+
+    @Test
+    public void testPrimeraVisitaCreaUnSoloCarrito() {
+        Carrito creado = carritoService.obtenerCarritoPorRut(RUT);
+        assertNotNull(creado.getId());
+        assertEquals(RUT, creado.getUsuario().getRut());
+        assertTrue(creado.getItemsCarrito().isEmpty());
+
+        Carrito leido = carritoService.obtenerCarritoPorRut(RUT);
+        assertEquals(creado.getId(), leido.getId());
+        assertEquals(1, carritoRepository.count());
+    }
+
+    private void limpiar() {
+        itemCarritoRepository.deleteAll();
+        carritoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+}
@@ -0,0 +1,92 @@
+package fullstack.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotenciaServiceTest {
+
+    private static final String ALCANCE = "POST /pedidos/1";
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Test
+    public void testMismaClaveYCuerpoRepiteLaRespuesta() {
+        String clave = UUID.randomUUID().toString();
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        ResponseEntity<String> original = idempotenciaService.ejecutar(clave, ALCANCE, Map.of("cantidad", 1),
+                () -> new ResponseEntity<>("pedido-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED));
+        ResponseEntity<String> repetida = idempotenciaService.ejecutar(clave, ALCANCE, Map.of("cantidad", 1),
+                () -> new ResponseEntity<>("pedido-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED));
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(original.getBody(), repetida.getBody());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECERA_REPETIDA));
+    }
+
+    @Test
+    public void testMismaClaveConOtroCuerpoRespondeUnprocessable() {
+        String clave = UUID.randomUUID().toString();
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        idempotenciaService.ejecutar(clave, ALCANCE, Map.of("cantidad", 1),
+                () -> new ResponseEntity<>("pedido-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED));
+        ResponseEntity<String> otra = idempotenciaService.ejecutar(clave, ALCANCE, Map.of("cantidad", 2),
+                () -> new ResponseEntity<>("pedido-" + ejecuciones.incrementAndGet(), HttpStatus.CREATED));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, otra.getStatusCode());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    public void testReintentoQueEsperabaUnOriginalFallidoLoEjecuta() throws Exception {
+        String clave = UUID.randomUUID().toString();
+        CountDownLatch originalEnCurso = new CountDownLatch(1);
+        CountDownLatch fallar = new CountDownLatch(1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(2);
+
+        Future<ResponseEntity<String>> original = ejecutor.submit(() -> idempotenciaService.ejecutar(clave, ALCANCE, null,
+                () -> {
+                    originalEnCurso.countDown();
+                    try {
+                        fallar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new RuntimeException("Stock insuficiente");
+                }));
+        originalEnCurso.await(10, TimeUnit.SECONDS);
+
+        Future<ResponseEntity<String>> reintento = ejecutor.submit(() -> idempotenciaService.ejecutar(clave, ALCANCE, null,
+                () -> new ResponseEntity<>("pedido", HttpStatus.CREATED)));
+        // Da tiempo a que el reintento quede esperando al original antes de hacerlo fallar
+        Thread.sleep(200);
+        fallar.countDown();
+
+        assertThrows(Exception.class, () -> original.get(10, TimeUnit.SECONDS));
+        // Antes el reintento propagaba la excepción del original y respondía 500
+        ResponseEntity<String> respuesta = reintento.get(10, TimeUnit.SECONDS);
+        ejecutor.shutdown();
+        assertEquals(HttpStatus.CREATED, respuesta.getStatusCode());
+        assertEquals("pedido", respuesta.getBody());
+    }
+}
@@ -0,0 +1,180 @@
+package fullstack.backend.service;
+
+import fullstack.backend.model.Artista;
+import fullstack.backend.model.Carrito;
+import fullstack.backend.model.ItemCarrito;
+import fullstack.backend.model.Producto;
+import fullstack.backend.model.Sello;
+import fullstack.backend.model.Usuario;
+import fullstack.backend.repository.ArtistaRepository;
+import fullstack.backend.repository.CarritoRepository;
+import fullstack.backend.repository.ItemCarritoRepository;
+import fullstack.backend.repository.PedidoRepository;
+import fullstack.backend.repository.ProductoRepository;
+import fullstack.backend.repository.SelloRepository;
+import fullstack.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PedidoServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoServiceTest.class);
+
+    private static final int COMPRADORES = 64;
+    private static final int STOCK_INICIAL = 40;
+    private static final int HILOS = 16;
+    private static final String SKU = "prensaje-limitado";
+    private static final String SKU_SECUNDARIO = "single-promocional";
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ArtistaRepository artistaRepository;
+
+    @Autowired
+    private SelloRepository selloRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private ItemCarritoRepository itemCarritoRepository;
+
+    @BeforeEach
+    public void setUp() {
+        limpiar();
+
+        Artista artista = artistaRepository.save(new Artista(null, "Artista Test", LocalDateTime.now()));
+        Sello sello = selloRepository.save(new Sello(null, "Sello Test", LocalDateTime.now()));
+        productoRepository.save(producto(SKU, artista, sello, STOCK_INICIAL));
+        productoRepository.save(producto(SKU_SECUNDARIO, artista, sello, COMPRADORES));
+
+        for (int i = 0; i < COMPRADORES; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setRut(20000000 + i);
+            usuario.setDv('1');
+            usuario.setEdad(30);
+            usuario.setNombre("Comprador");
+            usuario.setApellido("Test");
+            usuario.setTelefono("123456789");
+            usuario.setEmail("comprador" + i + "@example.com");
+            usuario.setHashContrasena("x");
+            usuarioRepository.save(usuario);
+
+            Carrito carrito = new Carrito();
+            carrito.setUsuario(usuario);
+            carrito = carritoRepository.save(carrito);
+            // Orden inverso de SKU en el carrito: el checkout debe ordenarlos igual para todos
+            itemCarritoRepository.save(new ItemCarrito(null, carrito, SKU_SECUNDARIO, 1));
+            itemCarritoRepository.save(new ItemCarrito(null, carrito, SKU, 1));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        limpiar();
+    }
+
+    @Test
+    public void testCheckoutConcurrenteNoSobrevende() throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (int i = 0; i < COMPRADORES; i++) {
+            int rut = 20000000 + i;
+            resultados.add(ejecutor.submit(() -> {
+                largada.await();
+                try {
+                    pedidoService.checkout(rut);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        int exitosos = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get(60, TimeUnit.SECONDS)) {
+                exitosos++;
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+        ejecutor.shutdown();
+        log.info("Checkout concurrente: {} intentos, {} pedidos en {} ms ({} checkouts/s)",
+                COMPRADORES, exitosos, nanos / 1_000_000, String.format("%.1f", COMPRADORES * 1e9 / nanos));
+
+        assertEquals(STOCK_INICIAL, exitosos);
+        assertEquals(STOCK_INICIAL, pedidoRepository.count());
+
+        Producto limitado = productoRepository.findById(SKU).orElseThrow();
+        assertEquals(0, limitado.getCantidadStock());
+        assertFalse(limitado.getEstaDisponible());
+
+        // Los checkouts rechazados se revierten completos, incluida la línea que sí tenía stock
+        Producto secundario = productoRepository.findById(SKU_SECUNDARIO).orElseThrow();
+        assertEquals(COMPRADORES - STOCK_INICIAL, secundario.getCantidadStock());
+        assertTrue(secundario.getEstaDisponible());
+        assertEquals((COMPRADORES - STOCK_INICIAL) * 2, itemCarritoRepository.count());
+    }
+
+    private static Producto producto(String sku, Artista artista, Sello sello, int stock) {
+        Producto producto = new Producto();
+        producto.setSku(sku);
+        producto.setTitulo("Titulo " + sku);
+        producto.setArtista(artista);
+        producto.setSello(sello);
+        producto.setNombreFormato("Vinilo");
+        producto.setTipoFormato("VINYL");
+        producto.setUrlImagen("https://example.com/" + sku + ".jpg");
+        producto.setPrecio(25000);
+        producto.setCantidadStock(stock);
+        producto.setEstaDisponible(true);
+        producto.setCreadoEn(LocalDateTime.now());
+        producto.setActualizadoEn(LocalDateTime.now());
+        return producto;
+    }
+
+    private void limpiar() {
+        pedidoRepository.deleteAll();
+        itemCarritoRepository.deleteAll();
+        carritoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        productoRepository.deleteAll();
+        artistaRepository.deleteAll();
+        selloRepository.deleteAll();
+    }
+}
@@ -0,0 +1,115 @@
+package fullstack.backend.service;
+
+import fullstack.backend.model.Artista;
+import fullstack.backend.model.Producto;
+import fullstack.backend.model.Sello;
+import fullstack.backend.repository.ArtistaRepository;
+import fullstack.backend.repository.ProductoRepository;
+import fullstack.backend.repository.SelloRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductoServiceTest {
+
+    private static final String SKU = "kind-of-blue-vinilo";
+    private static final int STOCK_INICIAL = 10;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ArtistaRepository artistaRepository;
+
+    @Autowired
+    private SelloRepository selloRepository;
+
+    private Producto producto;
+
+    @BeforeEach
+    public void setUp() {
+        limpiar();
+
+        Artista artista = artistaRepository.save(new Artista(null, "Miles Davis", LocalDateTime.now()));
+        Sello sello = selloRepository.save(new Sello(null, "Columbia", LocalDateTime.now()));
+        producto = new Producto();
+        producto.setSku(SKU);
+        producto.setTitulo("Kind of Blue");
+        producto.setArtista(artista);
+        producto.setSello(sello);
+        producto.setNombreFormato("Vinilo");
+        producto.setTipoFormato("VINYL");
+        producto.setUrlImagen("https://example.com/" + SKU + ".jpg");
+        producto.setPrecio(30000);
+        producto.setCantidadStock(STOCK_INICIAL);
+        producto.setEstaDisponible(true);
+        producto.setCreadoEn(LocalDateTime.now());
+        producto.setActualizadoEn(LocalDateTime.now());
+        producto = productoRepository.save(producto);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        limpiar();
+    }
+
+    @Test
+    public void testUpdateNoPisaStockNiDisponibilidad() {
+        producto.setTitulo("Kind of Blue (Legacy Edition)");
+        producto.setCantidadStock(999);
+        producto.setEstaDisponible(false);
+
+        productoService.updateProducto(SKU, producto);
+
+        Producto guardado = productoRepository.findById(SKU).orElseThrow();
+        assertEquals("Kind of Blue (Legacy Edition)", guardado.getTitulo());
+        assertEquals(STOCK_INICIAL, guardado.getCantidadStock());
+        assertTrue(guardado.getEstaDisponible());
+    }
+
+    @Test
+    public void testAjustarStockPorDelta() {
+        assertTrue(productoService.ajustarStock(SKU, 5));
+        assertEquals(STOCK_INICIAL + 5, productoRepository.findCantidadStock(SKU));
+
+        // Un ajuste que dejaría stock negativo no se aplica
+        assertFalse(productoService.ajustarStock(SKU, -(STOCK_INICIAL + 6)));
+        assertEquals(STOCK_INICIAL + 5, productoRepository.findCantidadStock(SKU));
+
+        assertTrue(productoService.ajustarStock(SKU, -(STOCK_INICIAL + 5)));
+        Producto agotado = productoRepository.findById(SKU).orElseThrow();
+        assertEquals(0, agotado.getCantidadStock());
+        assertFalse(agotado.getEstaDisponible());
+    }
+
+    @Test
+    public void testCambiarDisponibilidadNoActivaSinStock() {
+        assertTrue(productoService.cambiarDisponibilidad(SKU, false));
+        assertFalse(productoRepository.findById(SKU).orElseThrow().getEstaDisponible());
+        assertEquals(STOCK_INICIAL, productoRepository.findCantidadStock(SKU));
+
+        assertTrue(productoService.cambiarDisponibilidad(SKU, true));
+        assertTrue(productoService.ajustarStock(SKU, -STOCK_INICIAL));
+        assertFalse(productoService.cambiarDisponibilidad(SKU, true));
+    }
+
+    private void limpiar() {
+        productoRepository.deleteAll();
+        artistaRepository.deleteAll();
+        selloRepository.deleteAll();
+    }
+}